@@ -0,0 +1,79 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuration of the backend, read once from "db.properties".
+ *
+ * Missing file or keys leave the defaults given by the callers in effect.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class BackendConfig {
+
+    /**
+     * Configuration read from "db.properties".
+     */
+    private static Properties properties;
+
+    /**
+     * Returns the configuration, reading it on first call.
+     *
+     * @return configuration.
+     */
+    public static synchronized Properties getProperties() {
+
+        if (properties == null) {
+            properties = new Properties();
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+            try (InputStream input =
+                         loader.getResourceAsStream("db.properties")) {
+                if (input != null) {
+                    properties.load(input);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Returns a value from the configuration.
+     *
+     * @param key key of the value.
+     * @param defaultValue value returned if key isn't found.
+     * @return configured value or default value.
+     */
+    public static String get(String key, String defaultValue) {
+        return getProperties().getProperty(key, defaultValue);
+    }
+
+    /**
+     * Returns an integer value from the configuration.
+     *
+     * @param key key of the value.
+     * @param defaultValue value returned if key isn't found.
+     * @return configured value or default value.
+     */
+    public static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, Integer.toString(defaultValue)));
+    }
+
+    /**
+     * Returns a long value from the configuration.
+     *
+     * @param key key of the value.
+     * @param defaultValue value returned if key isn't found.
+     * @return configured value or default value.
+     */
+    public static long getLong(String key, long defaultValue) {
+        return Long.parseLong(get(key, Long.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,470 @@
+package fi.ooproject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Bounded pool of MYSQL connections shared by all backend resources.
+ *
+ * Configuration is read from {@link BackendConfig}. Besides the database
+ * name and credentials, the following optional keys are supported:
+ * <ul>
+ * <li>pool.maxSize - maximum number of open connections (10)</li>
+ * <li>pool.borrowTimeout - milliseconds to wait for a connection (5000)</li>
+ * <li>pool.idleTimeout - milliseconds before an idle connection is
+ *     closed (300000)</li>
+ * <li>pool.validationTimeout - seconds to wait for validation on
+ *     borrow (2)</li>
+ * </ul>
+ * Borrowed connections are returned to the pool by closing them. Metrics
+ * are registered as MBean "fi.ooproject:type=ConnectionPool".
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    /**
+     * Shared pool, created on first use.
+     */
+    private static ConnectionPool instance;
+
+    /**
+     * JDBC URL of the database.
+     */
+    private final String url;
+
+    /**
+     * MYSQL username.
+     */
+    private final String user;
+
+    /**
+     * MYSQL password.
+     */
+    private final String password;
+
+    /**
+     * Maximum number of open connections.
+     */
+    private final int maxSize;
+
+    /**
+     * Milliseconds to wait for a connection before giving up.
+     */
+    private final long borrowTimeout;
+
+    /**
+     * Milliseconds after which an idle connection is closed.
+     */
+    private final long idleTimeout;
+
+    /**
+     * Seconds to wait for a connection to be validated.
+     */
+    private final int validationTimeout;
+
+    /**
+     * Permits for open connections, one per borrowed connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, most recently used first.
+     */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+    /**
+     * Closes connections that have been idle too long.
+     */
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Number of successful borrows.
+     */
+    private final AtomicLong borrowCount = new AtomicLong();
+
+    /**
+     * Number of timed out borrows.
+     */
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * Total time spent waiting for connections in nanoseconds.
+     */
+    private final AtomicLong totalWait = new AtomicLong();
+
+    /**
+     * Longest time a single borrow has waited in nanoseconds.
+     */
+    private final AtomicLong maxWait = new AtomicLong();
+
+    /**
+     * Number of opened connections.
+     */
+    private final AtomicLong createdCount = new AtomicLong();
+
+    /**
+     * Number of discarded connections.
+     */
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    /**
+     * Returns the shared pool, creating it from the backend configuration
+     * on first call.
+     *
+     * @return shared pool.
+     */
+    public static synchronized ConnectionPool getInstance() {
+
+        if (instance == null) {
+            try {
+                Class.forName("com.mysql.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                e.printStackTrace();
+            }
+
+            instance = new ConnectionPool(BackendConfig.getProperties());
+            instance.register();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param properties database and pool configuration.
+     */
+    public ConnectionPool(Properties properties) {
+        /* Lets the driver send JDBC batches as multi-row inserts and
+           fetch results in batches of the statement's fetch size. */
+        url = "jdbc:mysql://localhost/" + properties.getProperty("database")
+                + "?rewriteBatchedStatements=true&useCursorFetch=true";
+        user = properties.getProperty("user");
+        password = properties.getProperty("password");
+        maxSize = Integer.parseInt(
+                properties.getProperty("pool.maxSize", "10"));
+        borrowTimeout = Long.parseLong(
+                properties.getProperty("pool.borrowTimeout", "5000"));
+        idleTimeout = Long.parseLong(
+                properties.getProperty("pool.idleTimeout", "300000"));
+        validationTimeout = Integer.parseInt(
+                properties.getProperty("pool.validationTimeout", "2"));
+        permits = new Semaphore(maxSize, true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(1000, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, interval, interval,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool.
+     *
+     * Reuses an idle connection if a valid one is available, otherwise
+     * opens a new one. Closing the returned connection returns it to the
+     * pool.
+     *
+     * @return borrowed connection.
+     * @throws SQLException if no connection is available within the borrow
+     *                      timeout or opening a connection fails.
+     */
+    public Connection getConnection() throws SQLException {
+
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        totalWait.addAndGet(waited);
+        maxWait.accumulateAndGet(waited, Math::max);
+
+        try {
+            Connection connection = takeValidIdle();
+
+            if (connection == null) {
+                connection = DriverManager.getConnection(url, user, password);
+                createdCount.incrementAndGet();
+            }
+
+            borrowCount.incrementAndGet();
+            return wrap(connection);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection that passes validation.
+     *
+     * @return valid idle connection or null if there is none.
+     */
+    private Connection takeValidIdle() {
+
+        while (true) {
+            IdleConnection candidate;
+
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+
+            if (candidate == null) {
+                return null;
+            }
+
+            try {
+                if (candidate.connection.isValid(validationTimeout)) {
+                    return candidate.connection;
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+
+            discard(candidate.connection);
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool.
+     *
+     * Rolls back unfinished transactions and restores auto-commit, so the
+     * next borrower gets a clean connection.
+     *
+     * @param connection returned connection.
+     */
+    private void release(Connection connection) {
+
+        try {
+            if (connection.isClosed()) {
+                discardedCount.incrementAndGet();
+            } else {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+
+                synchronized (idle) {
+                    idle.addFirst(new IdleConnection(connection,
+                            System.currentTimeMillis()));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle longer than the idle timeout.
+     */
+    private void evictIdle() {
+
+        long limit = System.currentTimeMillis() - idleTimeout;
+
+        synchronized (idle) {
+            Iterator<IdleConnection> iterator = idle.descendingIterator();
+
+            while (iterator.hasNext()) {
+                IdleConnection candidate = iterator.next();
+
+                if (candidate.since >= limit) {
+                    break;
+                }
+
+                iterator.remove();
+                discard(candidate.connection);
+            }
+        }
+    }
+
+    /**
+     * Closes a connection that won't be returned to the pool.
+     *
+     * @param connection discarded connection.
+     */
+    private void discard(Connection connection) {
+
+        discardedCount.incrementAndGet();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Wraps a connection so closing it returns it to the pool.
+     *
+     * @param connection physical connection.
+     * @return wrapping connection.
+     */
+    private Connection wrap(Connection connection) {
+
+        InvocationHandler handler = new InvocationHandler() {
+
+            /**
+             * Whether the wrapper has been closed.
+             */
+            private boolean closed = false;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args)
+                    throws Throwable {
+
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            release(connection);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || connection.isClosed();
+                    default:
+                        if (closed) {
+                            throw new SQLException("Connection is closed");
+                        }
+
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * Registers pool metrics as an MBean.
+     */
+    private void register() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("fi.ooproject:type=ConnectionPool"));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    @Override
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWait.get());
+    }
+
+    @Override
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWait.get());
+    }
+
+    @Override
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    @Override
+    public long getDiscardedCount() {
+        return discardedCount.get();
+    }
+
+    /**
+     * Idle connection and the time it was returned to the pool.
+     */
+    private static class IdleConnection {
+
+        /**
+         * Physical connection.
+         */
+        private final Connection connection;
+
+        /**
+         * Time the connection was returned in milliseconds.
+         */
+        private final long since;
+
+        /**
+         * Constructor.
+         *
+         * @param connection physical connection.
+         * @param since time the connection was returned in milliseconds.
+         */
+        IdleConnection(Connection connection, long since) {
+            this.connection = connection;
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fi.ooproject;
+
+/**
+ * Management interface exposing {@link ConnectionPool} metrics through JMX.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public interface ConnectionPoolMXBean {
+
+    /**
+     * Returns the number of connections currently borrowed.
+     *
+     * @return number of borrowed connections.
+     */
+    int getActiveConnections();
+
+    /**
+     * Returns the number of open connections waiting in the pool.
+     *
+     * @return number of idle connections.
+     */
+    int getIdleConnections();
+
+    /**
+     * Returns the maximum number of open connections.
+     *
+     * @return maximum number of open connections.
+     */
+    int getMaxSize();
+
+    /**
+     * Returns the number of threads waiting for a connection.
+     *
+     * @return number of waiting threads.
+     */
+    int getWaitingThreads();
+
+    /**
+     * Returns the number of successful borrows.
+     *
+     * @return number of successful borrows.
+     */
+    long getBorrowCount();
+
+    /**
+     * Returns the number of borrows that timed out.
+     *
+     * @return number of timed out borrows.
+     */
+    long getTimeoutCount();
+
+    /**
+     * Returns the total time spent waiting for connections.
+     *
+     * @return total wait time in milliseconds.
+     */
+    long getTotalWaitMillis();
+
+    /**
+     * Returns the longest time a single borrow has waited.
+     *
+     * @return longest wait time in milliseconds.
+     */
+    long getMaxWaitMillis();
+
+    /**
+     * Returns the number of connections opened.
+     *
+     * @return number of opened connections.
+     */
+    long getCreatedCount();
+
+    /**
+     * Returns the number of connections closed because they failed
+     * validation or stayed idle too long.
+     *
+     * @return number of discarded connections.
+     */
+    long getDiscardedCount();
+}
@@ -0,0 +1,51 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+
+/**
+ * GZIP decoding of request bodies.
+ *
+ * Request bodies sent with Content-Encoding gzip are decompressed before
+ * the resources read them. Registered apart from {@link GzipEncoding}, so
+ * clients compressing their requests are understood even when response
+ * compression is turned off.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+@Provider
+public class GzipDecoding implements ReaderInterceptor {
+
+    /**
+     * Name of the encoding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * Decompresses a request body sent with gzip encoding.
+     *
+     * @param context context of reading the body.
+     * @return read entity.
+     * @throws IOException if reading fails.
+     */
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context)
+            throws IOException {
+
+        if (GZIP.equalsIgnoreCase(
+                context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+            context.setInputStream(
+                    new GZIPInputStream(context.getInputStream()));
+        }
+
+        return context.proceed();
+    }
+}
@@ -0,0 +1,87 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * GZIP content encoding of responses.
+ *
+ * Responses with a body are compressed when the request's Accept-Encoding
+ * header accepts gzip. Streamed responses are compressed while they are
+ * written. Compressed request bodies are decoded by {@link GzipDecoding}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+@Provider
+public class GzipEncoding implements ContainerResponseFilter,
+        WriterInterceptor {
+
+    /**
+     * Name of the encoding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * Marks a response for compression if the client accepts gzip.
+     *
+     * @param request request being answered.
+     * @param response response to the request.
+     */
+    @Override
+    public void filter(ContainerRequestContext request,
+                       ContainerResponseContext response) {
+
+        String accepted = request.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        response.getHeaders().add(HttpHeaders.VARY,
+                HttpHeaders.ACCEPT_ENCODING);
+
+        if (response.hasEntity() && accepted != null
+                && accepted.toLowerCase().contains(GZIP)
+                && response.getHeaderString(HttpHeaders.CONTENT_ENCODING)
+                        == null) {
+            response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING,
+                    GZIP);
+        }
+    }
+
+    /**
+     * Compresses a response body marked for gzip encoding.
+     *
+     * @param context context of writing the body.
+     * @throws IOException if writing fails.
+     */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context)
+            throws IOException {
+
+        Object encoding =
+                context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+
+        if (!GZIP.equals(encoding)) {
+            context.proceed();
+            return;
+        }
+
+        /* Length of the compressed body isn't known in advance. */
+        context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        GZIPOutputStream gzip = new GZIPOutputStream(
+                context.getOutputStream(), true);
+        context.setOutputStream(gzip);
+
+        try {
+            context.proceed();
+        } finally {
+            gzip.finish();
+        }
+    }
+}
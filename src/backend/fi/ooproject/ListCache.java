@@ -0,0 +1,417 @@
+package fi.ooproject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Cache of JSON responses read from the database.
+ *
+ * Holds at most a configured number of responses, evicting the least
+ * recently used one when full, and drops responses older than the time to
+ * live. Saving a list invalidates the cached responses it affects.
+ *
+ * Configuration is read from {@link BackendConfig}:
+ * <ul>
+ * <li>cache.maxEntries - maximum number of responses, 0 disables
+ *     caching (1000)</li>
+ * <li>cache.ttl - milliseconds a response stays cached (60000)</li>
+ * <li>cache.maxEntrySize - largest cached response in bytes
+ *     (1048576)</li>
+ * </ul>
+ * Metrics are registered as MBean "fi.ooproject:type=ListCache".
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListCache implements ListCacheMXBean {
+
+    /**
+     * Key of the list names response.
+     */
+    public static final String NAMES = "names";
+
+    /**
+     * Shared cache, created on first use.
+     */
+    private static ListCache instance;
+
+    /**
+     * Cached responses, least recently used first.
+     */
+    private final LinkedHashMap<String, Cached> entries;
+
+    /**
+     * Maximum number of cached responses.
+     */
+    private final int maxEntries;
+
+    /**
+     * Milliseconds a response stays cached.
+     */
+    private final long ttl;
+
+    /**
+     * Largest cached response in bytes.
+     */
+    private final int maxEntrySize;
+
+    /**
+     * Incremented on every invalidation, so responses read before it
+     * aren't cached after it.
+     */
+    private long generation = 0;
+
+    /**
+     * Number of hits.
+     */
+    private long hitCount = 0;
+
+    /**
+     * Number of misses.
+     */
+    private long missCount = 0;
+
+    /**
+     * Number of evictions.
+     */
+    private long evictionCount = 0;
+
+    /**
+     * Number of expirations.
+     */
+    private long expirationCount = 0;
+
+    /**
+     * Number of invalidations.
+     */
+    private long invalidationCount = 0;
+
+    /**
+     * Returns the shared cache, creating it on first call.
+     *
+     * @return shared cache.
+     */
+    public static synchronized ListCache getInstance() {
+
+        if (instance == null) {
+            instance = new ListCache(
+                    BackendConfig.getInt("cache.maxEntries", 1000),
+                    BackendConfig.getLong("cache.ttl", 60000),
+                    BackendConfig.getInt("cache.maxEntrySize", 1048576));
+            instance.register();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries maximum number of responses, 0 disables caching.
+     * @param ttl milliseconds a response stays cached.
+     * @param maxEntrySize largest cached response in bytes.
+     */
+    public ListCache(int maxEntries, long ttl, int maxEntrySize) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.maxEntrySize = maxEntrySize;
+        entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, Cached> eldest) {
+
+                if (size() > ListCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns key of a list's contents.
+     *
+     * @param name name of the list.
+     * @return key of the list.
+     */
+    public static String listKey(String name) {
+        return "list:" + name;
+    }
+
+    /**
+     * Returns a cached response.
+     *
+     * @param key key of the response.
+     * @return cached response or null if not cached or expired.
+     */
+    public synchronized Cached get(String key) {
+
+        Cached entry = entries.get(key);
+
+        if (entry != null && entry.expires < System.currentTimeMillis()) {
+            entries.remove(key);
+            expirationCount++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+        return entry;
+    }
+
+    /**
+     * Returns current generation, to be passed to
+     * {@link #put(String, byte[], String, long)} when the response has been
+     * read.
+     *
+     * @return current generation.
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Caches a response unless something was invalidated after it was read.
+     *
+     * @param key key of the response.
+     * @param content response body.
+     * @param tag entity tag of the response, null if it has none.
+     * @param readGeneration generation before the response was read.
+     */
+    public synchronized void put(String key, byte[] content, String tag,
+                                 long readGeneration) {
+
+        if (maxEntries > 0 && readGeneration == generation
+                && content.length <= maxEntrySize) {
+            entries.put(key, new Cached(content, tag,
+                    System.currentTimeMillis() + ttl));
+        }
+    }
+
+    /**
+     * Drops cached responses of a saved list.
+     *
+     * Drops the list's contents and the list names, since the list may be
+     * new.
+     *
+     * @param name name of the saved list.
+     */
+    public synchronized void invalidate(String name) {
+
+        generation++;
+
+        if (entries.remove(listKey(name)) != null) {
+            invalidationCount++;
+        }
+
+        if (entries.remove(NAMES) != null) {
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Returns a stream that writes to the given stream and keeps a copy
+     * of the written bytes for caching.
+     *
+     * @param output stream to write to.
+     * @return recording stream.
+     */
+    public Recording record(OutputStream output) {
+        return new Recording(output, maxEntrySize);
+    }
+
+    /**
+     * Registers cache metrics as an MBean.
+     */
+    private void register() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("fi.ooproject:type=ListCache"));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public long getTtlMillis() {
+        return ttl;
+    }
+
+    @Override
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    @Override
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized long getExpirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Cached response, its entity tag and expiration time.
+     */
+    public static class Cached {
+
+        /**
+         * Response body.
+         */
+        private final byte[] content;
+
+        /**
+         * Entity tag of the response, null if it has none.
+         */
+        private final String tag;
+
+        /**
+         * Expiration time in milliseconds.
+         */
+        private final long expires;
+
+        /**
+         * Constructor.
+         *
+         * @param content response body.
+         * @param tag entity tag of the response, null if it has none.
+         * @param expires expiration time in milliseconds.
+         */
+        Cached(byte[] content, String tag, long expires) {
+            this.content = content;
+            this.tag = tag;
+            this.expires = expires;
+        }
+
+        /**
+         * Returns the response body.
+         *
+         * @return response body.
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * Returns entity tag of the response.
+         *
+         * @return entity tag or null if the response has none.
+         */
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Stream keeping a copy of the bytes written through it.
+     *
+     * Stops copying once the copy would exceed the largest cached
+     * response.
+     */
+    public static class Recording extends FilterOutputStream {
+
+        /**
+         * Copy of the written bytes, null if it grew too large.
+         */
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        /**
+         * Largest copy in bytes.
+         */
+        private final int limit;
+
+        /**
+         * Constructor.
+         *
+         * @param output stream to write to.
+         * @param limit largest copy in bytes.
+         */
+        Recording(OutputStream output, int limit) {
+            super(output);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        /**
+         * Drops the copy if it has grown too large.
+         */
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+
+        /**
+         * Returns the copied bytes.
+         *
+         * @return copied bytes or null if they didn't fit the limit.
+         */
+        public byte[] toByteArray() {
+            return copy == null ? null : copy.toByteArray();
+        }
+    }
+}
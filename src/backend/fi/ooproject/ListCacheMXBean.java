@@ -0,0 +1,72 @@
+package fi.ooproject;
+
+/**
+ * Management interface exposing {@link ListCache} metrics through JMX.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public interface ListCacheMXBean {
+
+    /**
+     * Returns the number of cached responses.
+     *
+     * @return number of cached responses.
+     */
+    int getSize();
+
+    /**
+     * Returns the maximum number of cached responses.
+     *
+     * @return maximum number of cached responses.
+     */
+    int getMaxEntries();
+
+    /**
+     * Returns the time a response stays cached.
+     *
+     * @return time to live in milliseconds.
+     */
+    long getTtlMillis();
+
+    /**
+     * Returns the number of requests served from the cache.
+     *
+     * @return number of hits.
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of requests not found in the cache.
+     *
+     * @return number of misses.
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of responses evicted to make room for others.
+     *
+     * @return number of evictions.
+     */
+    long getEvictionCount();
+
+    /**
+     * Returns the number of responses dropped because they expired.
+     *
+     * @return number of expirations.
+     */
+    long getExpirationCount();
+
+    /**
+     * Returns the number of responses dropped because a list was saved.
+     *
+     * @return number of invalidations.
+     */
+    long getInvalidationCount();
+
+    /**
+     * Empties the cache.
+     */
+    void clear();
+}
@@ -0,0 +1,129 @@
+package fi.ooproject;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes to the items of a list, combined per product.
+ *
+ * Operations are added in order. Operations on the same product are
+ * combined, so applying the changes writes every product at most once
+ * and the order of the writes doesn't matter.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListChanges {
+
+    /**
+     * Whether every item is removed before the other changes.
+     */
+    private boolean clear = false;
+
+    /**
+     * Removed products.
+     */
+    private Set<String> removes = new LinkedHashSet<>();
+
+    /**
+     * Map from product to new amount.
+     */
+    private Map<String, Integer> sets = new LinkedHashMap<>();
+
+    /**
+     * Map from product to added amount.
+     */
+    private Map<String, Integer> adds = new LinkedHashMap<>();
+
+    /**
+     * Adds to the amount of an item, creating the item if missing.
+     *
+     * @param product product of the item.
+     * @param amount added amount.
+     */
+    public void add(String product, int amount) {
+
+        /* Adding to an item known to be gone sets it. */
+        if (removes.remove(product) || clear || sets.containsKey(product)) {
+            sets.merge(product, amount, Integer::sum);
+        } else {
+            adds.merge(product, amount, Integer::sum);
+        }
+    }
+
+    /**
+     * Sets the amount of an item, creating the item if missing.
+     *
+     * @param product product of the item.
+     * @param amount new amount.
+     */
+    public void set(String product, int amount) {
+        adds.remove(product);
+        removes.remove(product);
+        sets.put(product, amount);
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param product product of the item.
+     */
+    public void remove(String product) {
+        adds.remove(product);
+        sets.remove(product);
+
+        if (!clear) {
+            removes.add(product);
+        }
+    }
+
+    /**
+     * Removes every item.
+     */
+    public void clear() {
+        adds.clear();
+        sets.clear();
+        removes.clear();
+        clear = true;
+    }
+
+    /**
+     * Returns whether every item is removed before the other changes.
+     *
+     * @return whether the list is cleared.
+     */
+    public boolean isClear() {
+        return clear;
+    }
+
+    /**
+     * Returns removed products.
+     *
+     * @return removed products.
+     */
+    public Set<String> getRemoves() {
+        return Collections.unmodifiableSet(removes);
+    }
+
+    /**
+     * Returns items whose amount is set.
+     *
+     * @return map from product to new amount.
+     */
+    public Map<String, Integer> getSets() {
+        return Collections.unmodifiableMap(sets);
+    }
+
+    /**
+     * Returns items whose amount is added to.
+     *
+     * @return map from product to added amount.
+     */
+    public Map<String, Integer> getAdds() {
+        return Collections.unmodifiableMap(adds);
+    }
+}
@@ -0,0 +1,444 @@
+package fi.ooproject;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database layout shared by all shopping lists.
+ *
+ * Lists are stored in table "lists" and their items in table "items",
+ * keyed by list and product:
+ * <pre>
+ * lists (id, name, version)          unique index on name
+ * items (list_id, product, amount)   primary key (list_id, product),
+ *                                    index on (list_id, amount, product)
+ * </pre>
+ * Products are compared with a binary collation, so names differing only
+ * in case are different items, as they are in the client.
+ *
+ * Earlier versions stored every list in a table of its own. Tables whose
+ * columns are exactly those the earlier versions created are copied to
+ * the shared tables the first time the schema is prepared. The copied
+ * table is then renamed with suffix "_migrated" instead of being dropped,
+ * so nothing is lost if another table happens to look like a list. The
+ * version of a list is incremented on every save, so together with the id
+ * it identifies the content of the list.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListSchema {
+
+    /**
+     * Suffix added to the name of a migrated list table.
+     */
+    private static final String MIGRATED_SUFFIX = "_migrated";
+
+    /**
+     * Maximum length of a table name.
+     */
+    private static final int MAX_TABLE_NAME = 64;
+
+    /**
+     * Columns of a list table created by earlier versions, in order.
+     */
+    private static final String[] LEGACY_COLUMNS = {
+        "ID INT AUTO_INCREMENT", "Amount INT", "Product VARCHAR(35)"
+    };
+
+    /**
+     * Definition of the product column.
+     */
+    private static final String PRODUCT_COLUMN = "product varchar(255) "
+            + "CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL";
+
+    /**
+     * Whether the schema has been prepared in this JVM.
+     */
+    private static boolean prepared = false;
+
+    /**
+     * Creates the tables if missing and migrates lists stored in tables
+     * of their own.
+     *
+     * Runs only once, later calls return immediately.
+     *
+     * @param pool pool providing the connection.
+     * @throws SQLException if database access fails.
+     */
+    public static synchronized void prepare(ConnectionPool pool)
+            throws SQLException {
+
+        if (prepared) {
+            return;
+        }
+
+        try (Connection conn = pool.getConnection()) {
+            createTables(conn);
+            migrate(conn);
+        }
+
+        prepared = true;
+    }
+
+    /**
+     * Creates the shared tables if they don't exist.
+     *
+     * @param conn database connection.
+     * @throws SQLException if database access fails.
+     */
+    private static void createTables(Connection conn) throws SQLException {
+
+        try (Statement statement = conn.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS lists ("
+                    + "id int NOT NULL AUTO_INCREMENT,"
+                    + "name varchar(64) NOT NULL,"
+                    + "version bigint NOT NULL DEFAULT 0,"
+                    + "PRIMARY KEY (id),"
+                    + "UNIQUE KEY lists_name (name)"
+                    + ") ENGINE=InnoDB");
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS items ("
+                    + "list_id int NOT NULL,"
+                    + PRODUCT_COLUMN + ","
+                    + "amount int NOT NULL,"
+                    + "PRIMARY KEY (list_id, product),"
+                    + "KEY items_amount (list_id, amount, product),"
+                    + "FOREIGN KEY (list_id) REFERENCES lists (id) "
+                    + "ON DELETE CASCADE"
+                    + ") ENGINE=InnoDB");
+
+            if (!hasColumn(conn.getMetaData(), conn.getCatalog(), "lists",
+                    "version")) {
+                statement.executeUpdate("ALTER TABLE lists ADD COLUMN "
+                        + "version bigint NOT NULL DEFAULT 0");
+            }
+
+            if (!hasIndex(conn.getMetaData(), conn.getCatalog(), "items",
+                    "items_amount")) {
+                statement.executeUpdate("CREATE INDEX items_amount "
+                        + "ON items (list_id, amount, product)");
+            }
+
+            if (!hasBinaryProducts(conn)) {
+                statement.executeUpdate("ALTER TABLE items MODIFY "
+                        + PRODUCT_COLUMN);
+            }
+        }
+    }
+
+    /**
+     * Returns whether products of table "items" have a binary collation.
+     *
+     * Tables created before the collation was declared use the default
+     * collation of the database, which ignores case.
+     *
+     * @param conn database connection.
+     * @return whether products are compared as binary.
+     * @throws SQLException if database access fails.
+     */
+    private static boolean hasBinaryProducts(Connection conn)
+            throws SQLException {
+
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT COLLATION_NAME FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'items' "
+                + "AND COLUMN_NAME = 'product'");
+             ResultSet rs = select.executeQuery()) {
+            return !rs.next() || rs.getString(1) == null
+                    || rs.getString(1).endsWith("_bin");
+        }
+    }
+
+    /**
+     * Copies every list stored in a table of its own to the shared tables
+     * and renames the old table.
+     *
+     * Each list is copied in a transaction of its own. Copying replaces
+     * existing amounts, so a migration interrupted before the rename can
+     * safely run again.
+     *
+     * @param conn database connection.
+     * @throws SQLException if database access fails.
+     */
+    private static void migrate(Connection conn) throws SQLException {
+
+        List<String> tables = new ArrayList<>();
+        DatabaseMetaData md = conn.getMetaData();
+
+        try (ResultSet rs = md.getTables(conn.getCatalog(), null, "%",
+                new String[]{"TABLE"})) {
+            while (rs.next()) {
+                /* Column 3 (from getTables()) is the TABLE_NAME */
+                String table = rs.getString(3);
+
+                if (isLegacyList(md, conn.getCatalog(), table)) {
+                    tables.add(table);
+                }
+            }
+        }
+
+        for (String table : tables) {
+            conn.setAutoCommit(false);
+
+            try {
+                int listId = listId(conn, table);
+
+                try (PreparedStatement copy = conn.prepareStatement(
+                        "INSERT INTO items (list_id, product, amount) "
+                        + "SELECT ?, Product, SUM(Amount) FROM "
+                        + quote(table)
+                        + " WHERE Product IS NOT NULL GROUP BY Product "
+                        + "ON DUPLICATE KEY UPDATE amount = VALUES(amount)")) {
+                    copy.setInt(1, listId);
+                    copy.executeUpdate();
+                }
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            String migrated = table.substring(0, Math.min(table.length(),
+                    MAX_TABLE_NAME - MIGRATED_SUFFIX.length()))
+                    + MIGRATED_SUFFIX;
+
+            try (Statement statement = conn.createStatement()) {
+                statement.executeUpdate("RENAME TABLE " + quote(table)
+                        + " TO " + quote(migrated));
+            }
+
+            System.out.println("Migrated list " + table + ", old table "
+                    + "renamed to " + migrated);
+        }
+    }
+
+    /**
+     * Returns whether a table is a list stored in a table of its own.
+     *
+     * Only tables whose columns match the definition used by earlier
+     * versions exactly are lists. Tables already migrated are not.
+     *
+     * @param md database metadata.
+     * @param catalog catalog of the table.
+     * @param table name of the table.
+     * @return whether the table has the columns of an old list table.
+     * @throws SQLException if database access fails.
+     */
+    private static boolean isLegacyList(DatabaseMetaData md, String catalog,
+                                        String table) throws SQLException {
+
+        if (table.equalsIgnoreCase("lists")
+                || table.equalsIgnoreCase("items")
+                || table.toLowerCase().endsWith(MIGRATED_SUFFIX)) {
+            return false;
+        }
+
+        List<String> columns = new ArrayList<>();
+
+        try (ResultSet rs = md.getColumns(catalog, null,
+                escape(md, table), "%")) {
+            while (rs.next()) {
+                String type = rs.getString("TYPE_NAME");
+
+                if (type.equalsIgnoreCase("VARCHAR")) {
+                    type += "(" + rs.getInt("COLUMN_SIZE") + ")";
+                }
+
+                if ("YES".equals(rs.getString("IS_AUTOINCREMENT"))) {
+                    type += " AUTO_INCREMENT";
+                }
+
+                columns.add(rs.getString("COLUMN_NAME") + " " + type);
+            }
+        }
+
+        if (columns.size() != LEGACY_COLUMNS.length) {
+            return false;
+        }
+
+        for (int i = 0; i < LEGACY_COLUMNS.length; i++) {
+            if (!LEGACY_COLUMNS[i].equalsIgnoreCase(columns.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Quotes a table name for use in SQL.
+     *
+     * @param table name of the table.
+     * @return quoted name.
+     */
+    private static String quote(String table) {
+        return "`" + table.replace("`", "``") + "`";
+    }
+
+    /**
+     * Escapes wildcards in a name used as a metadata search pattern.
+     *
+     * @param md database metadata.
+     * @param name searched name.
+     * @return pattern matching only the name.
+     * @throws SQLException if database access fails.
+     */
+    private static String escape(DatabaseMetaData md, String name)
+            throws SQLException {
+
+        String escape = md.getSearchStringEscape();
+        return name.replace(escape, escape + escape)
+                .replace("_", escape + "_").replace("%", escape + "%");
+    }
+
+    /**
+     * Returns whether a table has a column.
+     *
+     * @param md database metadata.
+     * @param catalog catalog of the table.
+     * @param table name of the table.
+     * @param column name of the column.
+     * @return whether the table has the column.
+     * @throws SQLException if database access fails.
+     */
+    private static boolean hasColumn(DatabaseMetaData md, String catalog,
+                                     String table, String column)
+            throws SQLException {
+
+        try (ResultSet rs = md.getColumns(catalog, null, table, "%")) {
+            while (rs.next()) {
+                if (rs.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether a table has an index.
+     *
+     * @param md database metadata.
+     * @param catalog catalog of the table.
+     * @param table name of the table.
+     * @param index name of the index.
+     * @return whether the table has the index.
+     * @throws SQLException if database access fails.
+     */
+    private static boolean hasIndex(DatabaseMetaData md, String catalog,
+                                    String table, String index)
+            throws SQLException {
+
+        try (ResultSet rs = md.getIndexInfo(catalog, null, table, false,
+                true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns id of the named list, creating the list if it doesn't exist.
+     *
+     * @param conn database connection.
+     * @param name name of the list.
+     * @return id of the list.
+     * @throws SQLException if database access fails.
+     */
+    public static int listId(Connection conn, String name)
+            throws SQLException {
+
+        /* LAST_INSERT_ID(id) makes an existing row's id the generated key. */
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO lists (name) VALUES (?) "
+                + "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, name);
+            insert.executeUpdate();
+
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No id for list " + name);
+                }
+
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Returns id of the named list.
+     *
+     * @param conn database connection.
+     * @param name name of the list.
+     * @return id of the list or -1 if it doesn't exist.
+     * @throws SQLException if database access fails.
+     */
+    public static int findListId(Connection conn, String name)
+            throws SQLException {
+
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT id FROM lists WHERE name = ?")) {
+            select.setString(1, name);
+
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Returns a tag identifying current content of the named list.
+     *
+     * @param conn database connection.
+     * @param name name of the list.
+     * @return id and version of the list or null if it doesn't exist.
+     * @throws SQLException if database access fails.
+     */
+    public static String findVersionTag(Connection conn, String name)
+            throws SQLException {
+
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT id, version FROM lists WHERE name = ?")) {
+            select.setString(1, name);
+
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next()
+                        ? rs.getInt("id") + "-" + rs.getLong("version")
+                        : null;
+            }
+        }
+    }
+
+    /**
+     * Increments version of a list after its content changed.
+     *
+     * @param conn database connection.
+     * @param listId id of the list.
+     * @throws SQLException if database access fails.
+     */
+    public static void incrementVersion(Connection conn, int listId)
+            throws SQLException {
+
+        try (PreparedStatement update = conn.prepareStatement(
+                "UPDATE lists SET version = version + 1 WHERE id = ?")) {
+            update.setInt(1, listId);
+            update.executeUpdate();
+        }
+    }
+}
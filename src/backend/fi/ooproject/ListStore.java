@@ -0,0 +1,149 @@
+package fi.ooproject;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Storage engine holding the shopping lists served by
+ * {@link ShoppingResource}.
+ *
+ * Every list has a version tag that changes whenever the list is saved.
+ * Reads return cursors, so implementations can hand out rows as they are
+ * read instead of collecting them first. Cursors must be closed.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public interface ListStore {
+
+    /**
+     * Returns names of the stored lists in alphabetical order.
+     *
+     * @return cursor over the names.
+     * @throws StorageException if reading fails.
+     */
+    Names names() throws StorageException;
+
+    /**
+     * Returns version tag of a list.
+     *
+     * @param name name of the list.
+     * @return version tag or null if the list doesn't exist.
+     * @throws StorageException if reading fails.
+     */
+    String version(String name) throws StorageException;
+
+    /**
+     * Returns every item of a list ordered by product.
+     *
+     * @param name name of the list.
+     * @return cursor over the items or null if the list doesn't exist.
+     * @throws StorageException if reading fails.
+     */
+    Items items(String name) throws StorageException;
+
+    /**
+     * Returns items of a list following given item.
+     *
+     * Items are ordered by product, or by amount and product.
+     *
+     * @param name name of the list.
+     * @param byAmount whether items are ordered by amount and product.
+     * @param afterAmount amount of the item to start after, ignored when
+     *                    ordered by product.
+     * @param afterProduct product of the item to start after, null to start
+     *                     from the first item.
+     * @param count maximum number of items.
+     * @return cursor over the items, empty if the list doesn't exist.
+     * @throws StorageException if reading fails.
+     */
+    Items page(String name, boolean byAmount, int afterAmount,
+               String afterProduct, int count) throws StorageException;
+
+    /**
+     * Saves contents of a list, creating the list if it doesn't exist.
+     *
+     * @param name name of the list.
+     * @param items map from product to amount.
+     * @param replace whether the stored items are rewritten instead of
+     *                only changing the items that differ.
+     * @return new version tag of the list.
+     * @throws StorageException if writing fails.
+     */
+    String save(String name, Map<String, Integer> items, boolean replace)
+            throws StorageException;
+
+    /**
+     * Applies changes to a list atomically, creating the list if it
+     * doesn't exist.
+     *
+     * @param name name of the list.
+     * @param changes changes to apply.
+     * @param precondition tested with current version tag of the list
+     *                     before changing it.
+     * @return new version tag of the list or null if the precondition
+     *         failed and nothing was changed.
+     * @throws StorageException if writing fails.
+     */
+    String patch(String name, ListChanges changes,
+                 Predicate<String> precondition) throws StorageException;
+
+    /**
+     * Cursor over rows read from the storage.
+     */
+    interface Cursor extends AutoCloseable {
+
+        /**
+         * Moves to the next row.
+         *
+         * @return whether there was a next row.
+         * @throws StorageException if reading fails.
+         */
+        boolean next() throws StorageException;
+
+        /**
+         * Releases resources of the cursor.
+         *
+         * @throws StorageException if releasing fails.
+         */
+        @Override
+        void close() throws StorageException;
+    }
+
+    /**
+     * Cursor over list names.
+     */
+    interface Names extends Cursor {
+
+        /**
+         * Returns current name.
+         *
+         * @return current name.
+         * @throws StorageException if reading fails.
+         */
+        String getName() throws StorageException;
+    }
+
+    /**
+     * Cursor over items of a list.
+     */
+    interface Items extends Cursor {
+
+        /**
+         * Returns product of current item.
+         *
+         * @return product of current item.
+         * @throws StorageException if reading fails.
+         */
+        String getProduct() throws StorageException;
+
+        /**
+         * Returns amount of current item.
+         *
+         * @return amount of current item.
+         * @throws StorageException if reading fails.
+         */
+        int getAmount() throws StorageException;
+    }
+}
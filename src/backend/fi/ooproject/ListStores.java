@@ -0,0 +1,55 @@
+package fi.ooproject;
+
+/**
+ * Provides the {@link ListStore} used by the backend.
+ *
+ * The engine is chosen with storage.engine in {@link BackendConfig}:
+ * <ul>
+ * <li>mysql - lists in the MYSQL database of {@link ConnectionPool}
+ *     (default)</li>
+ * <li>memory - lists in memory, persisted to log segments in
+ *     storage.dir, see {@link MemoryListStore}</li>
+ * </ul>
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListStores {
+
+    /**
+     * Shared store, created on first use.
+     */
+    private static ListStore instance;
+
+    /**
+     * Returns the shared store, creating it on first call.
+     *
+     * @return shared store.
+     */
+    public static synchronized ListStore getInstance() {
+
+        if (instance == null) {
+            String engine = BackendConfig.get("storage.engine", "mysql");
+
+            switch (engine) {
+                case "memory":
+                    instance = new MemoryListStore(
+                            BackendConfig.get("storage.dir", "shoplist-data"),
+                            Boolean.parseBoolean(
+                                    BackendConfig.get("storage.sync", "false")),
+                            BackendConfig.getLong("storage.compactSize",
+                                    64L * 1024 * 1024));
+                    break;
+                case "mysql":
+                    instance = new MySqlListStore(ConnectionPool.getInstance());
+                    break;
+                default:
+                    throw new IllegalStateException(
+                            "Unknown storage engine: " + engine);
+            }
+        }
+
+        return instance;
+    }
+}
@@ -0,0 +1,922 @@
+package fi.ooproject;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+
+/**
+ * {@link ListStore} keeping lists in memory and persisting them to an
+ * append-only log.
+ *
+ * Every save appends one record to the active log segment before the
+ * change becomes visible. A record holds the new version of the list and
+ * the changed items with their resulting amounts, so records can be
+ * replayed any number of times. Diff saves only log the items that
+ * changed.
+ *
+ * Segments are files named segment-&lt;number&gt;.log in the storage
+ * directory. Each record is written as
+ * <pre>
+ * int length, int crc32, payload
+ * </pre>
+ * where payload is name, list id, version, clear flag, removed products
+ * and set items. A record cut short by a crash fails its length or
+ * checksum and is ignored on replay.
+ *
+ * When the active segment grows past the compaction size, a background
+ * thread starts a new segment, writes a snapshot of every list over the
+ * old segment and deletes the older ones. Lists have separate locks, so
+ * reads of a list only wait for saves of the same list.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class MemoryListStore implements ListStore {
+
+    /**
+     * Map from list name to list.
+     */
+    private final ConcurrentSkipListMap<String, StoredList> lists =
+            new ConcurrentSkipListMap<>();
+
+    /**
+     * Id given to the next created list.
+     */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Directory of the log segments.
+     */
+    private final Path dir;
+
+    /**
+     * Whether every record is forced to disk before a save returns.
+     */
+    private final boolean sync;
+
+    /**
+     * Size in bytes of the active segment triggering compaction.
+     */
+    private final long compactSize;
+
+    /**
+     * Lock guarding the active segment.
+     */
+    private final Object logLock = new Object();
+
+    /**
+     * Lock held while a new list is saved and added.
+     */
+    private final Object createLock = new Object();
+
+    /**
+     * Number of the active segment.
+     */
+    private long activeSeq;
+
+    /**
+     * Active segment receiving new records.
+     */
+    private FileOutputStream active;
+
+    /**
+     * Size in bytes of the active segment.
+     */
+    private long activeSize;
+
+    /**
+     * Whether the active segment may end in a partly written record.
+     */
+    private boolean torn = false;
+
+    /**
+     * Whether a compaction is running.
+     */
+    private boolean compacting = false;
+
+    /**
+     * Constructor.
+     *
+     * Replays the existing segments and starts a new active segment.
+     *
+     * @param dir directory of the log segments.
+     * @param sync whether every record is forced to disk before a save
+     *             returns.
+     * @param compactSize size in bytes of the active segment triggering
+     *                    compaction.
+     */
+    public MemoryListStore(String dir, boolean sync, long compactSize) {
+        this.dir = Paths.get(dir);
+        this.sync = sync;
+        this.compactSize = compactSize;
+
+        try {
+            Files.createDirectories(this.dir);
+            long last = 0;
+
+            for (long seq : segments()) {
+                replay(segment(seq));
+                last = seq;
+            }
+
+            /* A new segment leaves any torn tail of the last one alone. */
+            activeSeq = last + 1;
+            active = new FileOutputStream(segment(activeSeq).toFile());
+        } catch (IOException e) {
+            throw new IllegalStateException("Opening storage failed", e);
+        }
+    }
+
+    @Override
+    public Names names() {
+
+        Iterator<String> names = lists.keySet().iterator();
+
+        return new Names() {
+
+            /**
+             * Current name.
+             */
+            private String name;
+
+            @Override
+            public boolean next() {
+                name = names.hasNext() ? names.next() : null;
+                return name != null;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public String version(String name) {
+
+        StoredList list = lists.get(name);
+
+        if (list == null) {
+            return null;
+        }
+
+        list.lock.readLock().lock();
+
+        try {
+            return list.tag();
+        } finally {
+            list.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Items items(String name) {
+
+        StoredList list = lists.get(name);
+
+        if (list == null) {
+            return null;
+        }
+
+        list.lock.readLock().lock();
+
+        try {
+            return CopiedItems.copy(list.items, list.items.size());
+        } finally {
+            list.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Items page(String name, boolean byAmount, int afterAmount,
+                      String afterProduct, int count) {
+
+        StoredList list = lists.get(name);
+
+        if (list == null) {
+            return new CopiedItems(new ArrayList<String>(), new int[0]);
+        }
+
+        list.lock.readLock().lock();
+
+        try {
+            if (byAmount) {
+                NavigableSet<AmountKey> keys = afterProduct == null
+                        ? list.byAmount
+                        : list.byAmount.tailSet(
+                                new AmountKey(afterAmount, afterProduct),
+                                false);
+                List<String> products = new ArrayList<>();
+                int[] amounts = new int[Math.min(count, keys.size())];
+
+                for (AmountKey key : keys) {
+                    if (products.size() == amounts.length) {
+                        break;
+                    }
+
+                    amounts[products.size()] = key.amount;
+                    products.add(key.product);
+                }
+
+                return new CopiedItems(products, amounts);
+            }
+
+            return CopiedItems.copy(afterProduct == null
+                    ? list.items
+                    : list.items.tailMap(afterProduct, false), count);
+        } finally {
+            list.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String save(String name, Map<String, Integer> items,
+                       boolean replace) throws StorageException {
+
+        return update(name, (list) -> {
+            ListChanges changes = new ListChanges();
+
+            if (replace) {
+                changes.clear();
+            } else {
+                for (String product : list.items.keySet()) {
+                    if (!items.containsKey(product)) {
+                        changes.remove(product);
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Integer> item : items.entrySet()) {
+                if (replace
+                        || !item.getValue().equals(
+                                list.items.get(item.getKey()))) {
+                    changes.set(item.getKey(), item.getValue());
+                }
+            }
+
+            return apply(name, list, changes);
+        });
+    }
+
+    @Override
+    public String patch(String name, ListChanges changes,
+                        Predicate<String> precondition)
+            throws StorageException {
+
+        return update(name, (list) -> {
+            if (!precondition.test(list.tag())) {
+                return null;
+            }
+
+            /* Log resulting amounts, so replaying the record is safe. */
+            ListChanges resolved = new ListChanges();
+
+            if (changes.isClear()) {
+                resolved.clear();
+            }
+
+            for (String product : changes.getRemoves()) {
+                resolved.remove(product);
+            }
+
+            for (Map.Entry<String, Integer> item
+                    : changes.getSets().entrySet()) {
+                resolved.set(item.getKey(), item.getValue());
+            }
+
+            for (Map.Entry<String, Integer> item
+                    : changes.getAdds().entrySet()) {
+                Integer current = list.items.get(item.getKey());
+                resolved.set(item.getKey(), item.getValue()
+                        + (current == null ? 0 : current));
+            }
+
+            return apply(name, list, resolved);
+        });
+    }
+
+    /**
+     * Runs an update of a list holding its write lock.
+     *
+     * If the list doesn't exist, the update runs on a new list holding
+     * the creation lock instead. The new list is added only if the update
+     * logged a change, so a failed precondition or log write leaves no
+     * empty list behind.
+     *
+     * @param name name of the list.
+     * @param update update of the list.
+     * @return version tag returned by the update.
+     * @throws StorageException if the update fails.
+     */
+    private String update(String name, ListUpdate update)
+            throws StorageException {
+
+        StoredList list = lists.get(name);
+
+        if (list == null) {
+            synchronized (createLock) {
+                list = lists.get(name);
+
+                if (list == null) {
+                    StoredList created = new StoredList(nextId.get());
+                    String tag = update.apply(created);
+
+                    if (created.version > 0) {
+                        nextId.incrementAndGet();
+                        lists.put(name, created);
+                    }
+
+                    return tag;
+                }
+            }
+        }
+
+        list.lock.writeLock().lock();
+
+        try {
+            return update.apply(list);
+        } finally {
+            list.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Logs changes and applies them to a list.
+     *
+     * Called holding the write lock of the list.
+     *
+     * @param name name of the list.
+     * @param list changed list.
+     * @param changes changes without additions.
+     * @return new version tag of the list.
+     * @throws StorageException if writing the log fails.
+     */
+    private String apply(String name, StoredList list, ListChanges changes)
+            throws StorageException {
+
+        long version = list.version + 1;
+
+        try {
+            append(record(name, list.id, version, changes.isClear(),
+                    changes.getRemoves(), changes.getSets()));
+        } catch (IOException e) {
+            throw new StorageException("Writing log failed", e);
+        }
+
+        list.apply(version, changes.isClear(), changes.getRemoves(),
+                changes.getSets());
+        return list.tag();
+    }
+
+    /**
+     * Encodes a log record.
+     *
+     * @param name name of the list.
+     * @param id id of the list.
+     * @param version new version of the list.
+     * @param clear whether every item is removed first.
+     * @param removes removed products.
+     * @param sets map from product to new amount.
+     * @return record with length and checksum.
+     * @throws IOException if encoding fails.
+     */
+    private static byte[] record(String name, int id, long version,
+                                 boolean clear, Iterable<String> removes,
+                                 Map<String, Integer> sets)
+            throws IOException {
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(payload);
+        data.writeUTF(name);
+        data.writeInt(id);
+        data.writeLong(version);
+        data.writeBoolean(clear);
+        List<String> removed = new ArrayList<>();
+        removes.forEach(removed::add);
+        data.writeInt(removed.size());
+
+        for (String product : removed) {
+            data.writeUTF(product);
+        }
+
+        data.writeInt(sets.size());
+
+        for (Map.Entry<String, Integer> item : sets.entrySet()) {
+            data.writeUTF(item.getKey());
+            data.writeInt(item.getValue());
+        }
+
+        byte[] bytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(record);
+        header.writeInt(bytes.length);
+        header.writeInt((int) crc.getValue());
+        header.write(bytes);
+        return record.toByteArray();
+    }
+
+    /**
+     * Appends a record to the active segment.
+     *
+     * Starts a compaction when the segment grows past the compaction size.
+     * If writing fails, the partly written record is removed, so later
+     * records don't follow a record that stops the replay.
+     *
+     * @param record record with length and checksum.
+     * @throws IOException if writing fails.
+     */
+    private void append(byte[] record) throws IOException {
+
+        synchronized (logLock) {
+            if (torn) {
+                discardTail();
+
+                if (torn) {
+                    throw new IOException("Log ends in a partial record");
+                }
+            }
+
+            try {
+                active.write(record);
+
+                if (sync) {
+                    active.getChannel().force(false);
+                }
+            } catch (IOException e) {
+                torn = true;
+                discardTail();
+                throw e;
+            }
+
+            activeSize += record.length;
+
+            if (activeSize > compactSize && !compacting) {
+                compacting = true;
+                Thread thread = new Thread(this::compact, "storage-compaction");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Removes a partly written record from the end of the active segment.
+     *
+     * Truncates the segment to its last complete record. If that fails,
+     * starts a new active segment instead, since replay reads every
+     * segment separately.
+     *
+     * Called holding the log lock.
+     */
+    private void discardTail() {
+
+        try {
+            active.getChannel().truncate(activeSize);
+            torn = false;
+            return;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        try {
+            FileOutputStream next = new FileOutputStream(
+                    segment(activeSeq + 1).toFile());
+            FileOutputStream old = active;
+            active = next;
+            activeSeq++;
+            activeSize = 0;
+            torn = false;
+            old.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Replaces the log segments with a snapshot of the lists.
+     *
+     * Starts a new active segment, writes the snapshot over the previous
+     * one and deletes the segments before it. Records logged while the
+     * snapshot is written go to the new segment and replay on top of it.
+     */
+    private void compact() {
+
+        try {
+            long snapshotSeq;
+
+            /* Lists being created are added before the snapshot. */
+            synchronized (createLock) {
+                synchronized (logLock) {
+                    snapshotSeq = activeSeq;
+                    FileOutputStream next = new FileOutputStream(
+                            segment(snapshotSeq + 1).toFile());
+                    active.close();
+                    active = next;
+                    activeSeq = snapshotSeq + 1;
+                    activeSize = 0;
+                    torn = false;
+                }
+            }
+
+            Path temp = dir.resolve("segment-" + snapshotSeq + ".tmp");
+
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                for (Map.Entry<String, StoredList> entry : lists.entrySet()) {
+                    StoredList list = entry.getValue();
+                    list.lock.readLock().lock();
+
+                    try {
+                        out.write(record(entry.getKey(), list.id,
+                                list.version, true,
+                                new ArrayList<String>(), list.items));
+                    } finally {
+                        list.lock.readLock().unlock();
+                    }
+                }
+
+                out.getChannel().force(false);
+            }
+
+            Files.move(temp, segment(snapshotSeq),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+
+            for (long seq : segments()) {
+                if (seq < snapshotSeq) {
+                    Files.delete(segment(seq));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (logLock) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Returns numbers of the log segments in ascending order.
+     *
+     * Deletes snapshots left unfinished by a crash.
+     *
+     * @return segment numbers.
+     * @throws IOException if listing the directory fails.
+     */
+    private List<Long> segments() throws IOException {
+
+        List<Long> found = new ArrayList<>();
+
+        try (DirectoryStream<Path> files =
+                     Files.newDirectoryStream(dir, "segment-*")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                if (fileName.endsWith(".tmp") && !compacting) {
+                    Files.delete(file);
+                } else if (fileName.endsWith(".log")) {
+                    found.add(Long.parseLong(fileName.substring(
+                            "segment-".length(),
+                            fileName.length() - ".log".length())));
+                }
+            }
+        }
+
+        found.sort(null);
+        return found;
+    }
+
+    /**
+     * Returns path of a log segment.
+     *
+     * @param seq number of the segment.
+     * @return path of the segment.
+     */
+    private Path segment(long seq) {
+        return dir.resolve("segment-" + seq + ".log");
+    }
+
+    /**
+     * Applies the records of a log segment.
+     *
+     * Stops at the first record that is cut short, claims to be longer
+     * than the rest of the segment or fails its checksum. Records older
+     * than the version in memory are skipped.
+     *
+     * @param file log segment.
+     * @throws IOException if reading fails.
+     */
+    private void replay(Path file) throws IOException {
+
+        long remaining = Files.size(file);
+
+        try (InputStream input = new BufferedInputStream(
+                Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(input);
+
+            while (true) {
+                byte[] payload;
+
+                try {
+                    int length = in.readInt();
+                    int checksum = in.readInt();
+                    remaining -= 8;
+
+                    /* A corrupt length mustn't allocate a huge buffer. */
+                    if (length < 0 || length > remaining) {
+                        return;
+                    }
+
+                    remaining -= length;
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+
+                    if ((int) crc.getValue() != checksum) {
+                        return;
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+
+                DataInputStream data = new DataInputStream(
+                        new ByteArrayInputStream(payload));
+                String name = data.readUTF();
+                int id = data.readInt();
+                long version = data.readLong();
+                boolean clear = data.readBoolean();
+                List<String> removes = new ArrayList<>();
+
+                for (int i = data.readInt(); i > 0; i--) {
+                    removes.add(data.readUTF());
+                }
+
+                Map<String, Integer> sets = new TreeMap<>();
+
+                for (int i = data.readInt(); i > 0; i--) {
+                    sets.put(data.readUTF(), data.readInt());
+                }
+
+                StoredList list = lists.computeIfAbsent(name,
+                        (key) -> new StoredList(id));
+
+                if (version > list.version) {
+                    list.apply(version, clear, removes, sets);
+                }
+
+                if (id >= nextId.get()) {
+                    nextId.set(id + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Update of a stored list.
+     */
+    @FunctionalInterface
+    private interface ListUpdate {
+
+        /**
+         * Updates a list.
+         *
+         * @param list updated list.
+         * @return new version tag of the list or null if nothing was
+         *         changed.
+         * @throws StorageException if writing the log fails.
+         */
+        String apply(StoredList list) throws StorageException;
+    }
+
+    /**
+     * Stored list.
+     */
+    private static class StoredList {
+
+        /**
+         * Id of the list.
+         */
+        private final int id;
+
+        /**
+         * Number of saves of the list.
+         */
+        private long version = 0;
+
+        /**
+         * Lock guarding the items and version.
+         */
+        private final ReentrantReadWriteLock lock =
+                new ReentrantReadWriteLock();
+
+        /**
+         * Map from product to amount, ordered by product.
+         */
+        private final TreeMap<String, Integer> items = new TreeMap<>();
+
+        /**
+         * Items ordered by amount and product.
+         */
+        private final TreeSet<AmountKey> byAmount = new TreeSet<>();
+
+        /**
+         * Constructor.
+         *
+         * @param id id of the list.
+         */
+        StoredList(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns version tag of the list.
+         *
+         * @return version tag.
+         */
+        String tag() {
+            return id + "-" + version;
+        }
+
+        /**
+         * Applies changes to the items.
+         *
+         * @param newVersion new version of the list.
+         * @param clear whether every item is removed first.
+         * @param removes removed products.
+         * @param sets map from product to new amount.
+         */
+        void apply(long newVersion, boolean clear, Iterable<String> removes,
+                   Map<String, Integer> sets) {
+
+            if (clear) {
+                items.clear();
+                byAmount.clear();
+            }
+
+            for (String product : removes) {
+                Integer amount = items.remove(product);
+
+                if (amount != null) {
+                    byAmount.remove(new AmountKey(amount, product));
+                }
+            }
+
+            for (Map.Entry<String, Integer> item : sets.entrySet()) {
+                Integer old = items.put(item.getKey(), item.getValue());
+
+                if (old != null) {
+                    byAmount.remove(new AmountKey(old, item.getKey()));
+                }
+
+                byAmount.add(new AmountKey(item.getValue(), item.getKey()));
+            }
+
+            version = newVersion;
+        }
+    }
+
+    /**
+     * Key ordering items by amount and product.
+     */
+    private static class AmountKey implements Comparable<AmountKey> {
+
+        /**
+         * Amount of the item.
+         */
+        private final int amount;
+
+        /**
+         * Product of the item.
+         */
+        private final String product;
+
+        /**
+         * Constructor.
+         *
+         * @param amount amount of the item.
+         * @param product product of the item.
+         */
+        AmountKey(int amount, String product) {
+            this.amount = amount;
+            this.product = product;
+        }
+
+        @Override
+        public int compareTo(AmountKey other) {
+            int order = Integer.compare(amount, other.amount);
+            return order != 0 ? order : product.compareTo(other.product);
+        }
+    }
+
+    /**
+     * Cursor over items copied out of a list.
+     *
+     * Items are copied while holding the read lock of the list, so the
+     * lock isn't held while the items are sent.
+     */
+    private static class CopiedItems implements Items {
+
+        /**
+         * Copied products.
+         */
+        private final List<String> products;
+
+        /**
+         * Copied amounts.
+         */
+        private final int[] amounts;
+
+        /**
+         * Index of current item.
+         */
+        private int index = -1;
+
+        /**
+         * Constructor.
+         *
+         * @param products copied products.
+         * @param amounts copied amounts, in the same order as products.
+         */
+        CopiedItems(List<String> products, int[] amounts) {
+            this.products = products;
+            this.amounts = amounts;
+        }
+
+        /**
+         * Copies items from the start of a map.
+         *
+         * @param items map from product to amount.
+         * @param count maximum number of items copied.
+         * @return cursor over the copied items.
+         */
+        static CopiedItems copy(NavigableMap<String, Integer> items,
+                                int count) {
+
+            List<String> products = new ArrayList<>();
+            int[] amounts = new int[count];
+
+            for (Map.Entry<String, Integer> item : items.entrySet()) {
+                if (products.size() == count) {
+                    break;
+                }
+
+                amounts[products.size()] = item.getValue();
+                products.add(item.getKey());
+            }
+
+            return new CopiedItems(products, amounts);
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < products.size();
+        }
+
+        @Override
+        public String getProduct() {
+            return products.get(index);
+        }
+
+        @Override
+        public int getAmount() {
+            return amounts[index];
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,615 @@
+package fi.ooproject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * {@link ListStore} keeping lists in a MYSQL database.
+ *
+ * Uses the {@link ListSchema} layout and connections of the shared
+ * {@link ConnectionPool}. Reads stream rows from the database in batches
+ * of stream.fetchSize rows and writes send save.batchSize rows per batch.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class MySqlListStore implements ListStore {
+
+    /**
+     * Pool providing database connections.
+     */
+    private ConnectionPool pool;
+
+    /**
+     * Number of rows inserted per batch when saving a list.
+     */
+    private int batchSize;
+
+    /**
+     * Number of rows fetched from the database at a time when reading.
+     */
+    private int fetchSize;
+
+    /**
+     * Whether the database layout has been prepared.
+     */
+    private volatile boolean prepared = false;
+
+    /**
+     * Constructor.
+     *
+     * Prepares the {@link ListSchema database layout}. If the database
+     * can't be reached, preparing is retried by the first operation
+     * after it can.
+     *
+     * @param pool pool providing database connections.
+     */
+    public MySqlListStore(ConnectionPool pool) {
+        this.pool = pool;
+        batchSize = BackendConfig.getInt("save.batchSize", 500);
+        fetchSize = BackendConfig.getInt("stream.fetchSize", 500);
+
+        try {
+            prepare();
+        } catch (StorageException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Prepares the database layout unless it has been prepared already.
+     *
+     * @throws StorageException if preparing fails.
+     */
+    private void prepare() throws StorageException {
+
+        if (prepared) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!prepared) {
+                try {
+                    ListSchema.prepare(pool);
+                    prepared = true;
+                } catch (SQLException e) {
+                    throw new StorageException("Preparing database failed",
+                            e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Names names() throws StorageException {
+
+        prepare();
+        Query query = new Query("SELECT name FROM lists ORDER BY name",
+                fetchSize);
+        ResultSet rs = query.rs;
+
+        return new Names() {
+
+            @Override
+            public boolean next() throws StorageException {
+                try {
+                    return rs.next();
+                } catch (SQLException e) {
+                    throw new StorageException("Reading names failed", e);
+                }
+            }
+
+            @Override
+            public String getName() throws StorageException {
+                try {
+                    return rs.getString("name");
+                } catch (SQLException e) {
+                    throw new StorageException("Reading names failed", e);
+                }
+            }
+
+            @Override
+            public void close() throws StorageException {
+                query.close();
+            }
+        };
+    }
+
+    @Override
+    public String version(String name) throws StorageException {
+
+        prepare();
+
+        try (Connection conn = pool.getConnection()) {
+            return ListSchema.findVersionTag(conn, name);
+        } catch (SQLException e) {
+            throw new StorageException("Reading version failed", e);
+        }
+    }
+
+    @Override
+    public Items items(String name) throws StorageException {
+
+        prepare();
+
+        /* An empty list still yields one row, with null product. */
+        Query query = new Query("SELECT i.amount, i.product FROM lists l "
+                + "LEFT JOIN items i ON i.list_id = l.id WHERE l.name = ? "
+                + "ORDER BY i.product",
+                fetchSize, name);
+
+        try {
+            if (!query.rs.next()) {
+                query.close();
+                return null;
+            }
+
+            return new RowItems(query,
+                    query.rs.getString("product") != null);
+        } catch (SQLException e) {
+            query.close();
+            throw new StorageException("Reading list failed", e);
+        }
+    }
+
+    @Override
+    public Items page(String name, boolean byAmount, int afterAmount,
+                      String afterProduct, int count)
+            throws StorageException {
+
+        prepare();
+        List<Object> params = new ArrayList<>();
+        String query = "SELECT i.amount, i.product FROM items i "
+                + "JOIN lists l ON l.id = i.list_id WHERE l.name = ?";
+        params.add(name);
+
+        if (afterProduct != null && byAmount) {
+            query += " AND (i.amount > ? OR (i.amount = ? "
+                    + "AND i.product > ?))";
+            params.add(afterAmount);
+            params.add(afterAmount);
+            params.add(afterProduct);
+        } else if (afterProduct != null) {
+            query += " AND i.product > ?";
+            params.add(afterProduct);
+        }
+
+        query += byAmount
+                ? " ORDER BY i.amount, i.product LIMIT ?"
+                : " ORDER BY i.product LIMIT ?";
+        params.add(count);
+
+        return new RowItems(new Query(query, Math.min(fetchSize, count),
+                params.toArray()), false);
+    }
+
+    @Override
+    public String save(String name, Map<String, Integer> items,
+                       boolean replace) throws StorageException {
+
+        prepare();
+
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            int listId = ListSchema.listId(conn, name);
+            boolean saved = replace
+                    ? replaceItems(conn, listId, items)
+                    : applyChanges(conn, listId, items);
+
+            if (!saved) {
+                conn.rollback();
+                throw new StorageException("Saving list failed");
+            }
+
+            ListSchema.incrementVersion(conn, listId);
+            String version = ListSchema.findVersionTag(conn, name);
+            conn.commit();
+            return version;
+        } catch (SQLException e) {
+            throw new StorageException("Saving list failed", e);
+        }
+    }
+
+    @Override
+    public String patch(String name, ListChanges changes,
+                        Predicate<String> precondition)
+            throws StorageException {
+
+        prepare();
+
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            /* Creating the list row locks it until commit. */
+            int listId = ListSchema.listId(conn, name);
+
+            if (!precondition.test(ListSchema.findVersionTag(conn, name))) {
+                conn.rollback();
+                return null;
+            }
+
+            if (!applyOperations(conn, listId, changes)) {
+                conn.rollback();
+                throw new StorageException("Saving list failed");
+            }
+
+            ListSchema.incrementVersion(conn, listId);
+            String version = ListSchema.findVersionTag(conn, name);
+            conn.commit();
+            return version;
+        } catch (SQLException e) {
+            throw new StorageException("Saving list failed", e);
+        }
+    }
+
+    /**
+     * Deletes every item of a list and inserts the given items.
+     *
+     * @param conn connection in a transaction.
+     * @param listId id of the list.
+     * @param items map from product to amount.
+     * @return whether every change succeeded.
+     * @throws SQLException if database access fails.
+     */
+    private boolean replaceItems(Connection conn, int listId,
+                                 Map<String, Integer> items)
+            throws SQLException {
+
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM items WHERE list_id = ?")) {
+            delete.setInt(1, listId);
+            delete.executeUpdate();
+        }
+
+        return insertItems(conn, listId, items);
+    }
+
+    /**
+     * Inserts the given items to a list.
+     *
+     * @param conn connection in a transaction.
+     * @param listId id of the list.
+     * @param items map from product to amount.
+     * @return whether every insert succeeded.
+     * @throws SQLException if database access fails.
+     */
+    private boolean insertItems(Connection conn, int listId,
+                                Map<String, Integer> items)
+            throws SQLException {
+
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO items (list_id, product, amount) "
+                + "VALUES (?, ?, ?)")) {
+            int pending = 0;
+
+            for (Map.Entry<String, Integer> item : items.entrySet()) {
+                insert.setInt(1, listId);
+                insert.setString(2, item.getKey());
+                insert.setInt(3, item.getValue());
+                insert.addBatch();
+
+                if (++pending % batchSize == 0
+                        && !batchSucceeded(insert.executeBatch())) {
+                    return false;
+                }
+            }
+
+            return batchSucceeded(insert.executeBatch());
+        }
+    }
+
+    /**
+     * Applies the difference between stored items and given items.
+     *
+     * Inserts products missing from the list, updates items whose amount
+     * changed and deletes products no longer on the list.
+     *
+     * @param conn connection in a transaction.
+     * @param listId id of the list.
+     * @param items map from product to amount.
+     * @return whether every change succeeded.
+     * @throws SQLException if database access fails.
+     */
+    private boolean applyChanges(Connection conn, int listId,
+                                 Map<String, Integer> items)
+            throws SQLException {
+
+        Map<String, Integer> missing = new LinkedHashMap<>(items);
+        Map<String, Integer> updates = new LinkedHashMap<>();
+        List<String> deletes = new ArrayList<>();
+
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT product, amount FROM items WHERE list_id = ? "
+                + "ORDER BY product")) {
+            select.setInt(1, listId);
+
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    String product = rs.getString("product");
+                    Integer wanted = missing.remove(product);
+
+                    if (wanted == null) {
+                        deletes.add(product);
+                    } else if (wanted != rs.getInt("amount")) {
+                        updates.put(product, wanted);
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM items WHERE list_id = ? AND product = ?");
+             PreparedStatement update = conn.prepareStatement(
+                     "UPDATE items SET amount = ? "
+                     + "WHERE list_id = ? AND product = ?")) {
+            int pending = 0;
+
+            for (String product : deletes) {
+                delete.setInt(1, listId);
+                delete.setString(2, product);
+                delete.addBatch();
+
+                if (++pending % batchSize == 0
+                        && !batchSucceeded(delete.executeBatch())) {
+                    return false;
+                }
+            }
+
+            pending = 0;
+
+            for (Map.Entry<String, Integer> change : updates.entrySet()) {
+                update.setInt(1, change.getValue());
+                update.setInt(2, listId);
+                update.setString(3, change.getKey());
+                update.addBatch();
+
+                if (++pending % batchSize == 0
+                        && !batchSucceeded(update.executeBatch())) {
+                    return false;
+                }
+            }
+
+            if (!batchSucceeded(delete.executeBatch())
+                    || !batchSucceeded(update.executeBatch())) {
+                return false;
+            }
+        }
+
+        return insertItems(conn, listId, missing);
+    }
+
+    /**
+     * Applies combined item operations to a list.
+     *
+     * @param conn connection in a transaction.
+     * @param listId id of the list.
+     * @param changes changes to apply.
+     * @return whether every change succeeded.
+     * @throws SQLException if database access fails.
+     */
+    private boolean applyOperations(Connection conn, int listId,
+                                    ListChanges changes)
+            throws SQLException {
+
+        if (changes.isClear()) {
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM items WHERE list_id = ?")) {
+                delete.setInt(1, listId);
+                delete.executeUpdate();
+            }
+        }
+
+        try (PreparedStatement delete = conn.prepareStatement(
+                "DELETE FROM items WHERE list_id = ? AND product = ?");
+             PreparedStatement set = conn.prepareStatement(
+                     "INSERT INTO items (list_id, product, amount) "
+                     + "VALUES (?, ?, ?) "
+                     + "ON DUPLICATE KEY UPDATE amount = VALUES(amount)");
+             PreparedStatement add = conn.prepareStatement(
+                     "INSERT INTO items (list_id, product, amount) "
+                     + "VALUES (?, ?, ?) "
+                     + "ON DUPLICATE KEY UPDATE amount = amount "
+                     + "+ VALUES(amount)")) {
+
+            for (String product : changes.getRemoves()) {
+                delete.setInt(1, listId);
+                delete.setString(2, product);
+                delete.addBatch();
+            }
+
+            for (Map.Entry<String, Integer> change
+                    : changes.getSets().entrySet()) {
+                set.setInt(1, listId);
+                set.setString(2, change.getKey());
+                set.setInt(3, change.getValue());
+                set.addBatch();
+            }
+
+            for (Map.Entry<String, Integer> change
+                    : changes.getAdds().entrySet()) {
+                add.setInt(1, listId);
+                add.setString(2, change.getKey());
+                add.setInt(3, change.getValue());
+                add.addBatch();
+            }
+
+            return batchSucceeded(delete.executeBatch())
+                    && batchSucceeded(set.executeBatch())
+                    && batchSucceeded(add.executeBatch());
+        }
+    }
+
+    /**
+     * Returns whether every statement of an executed batch succeeded.
+     *
+     * @param statuses update counts returned by the batch.
+     * @return whether every statement succeeded.
+     */
+    private boolean batchSucceeded(int[] statuses) {
+
+        for (int status : statuses) {
+            if (status == Statement.EXECUTE_FAILED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Cursor over items read from a result set with columns amount and
+     * product.
+     */
+    private class RowItems implements Items {
+
+        /**
+         * Query returning the items.
+         */
+        private final Query query;
+
+        /**
+         * Result set of the query.
+         */
+        private final ResultSet rs;
+
+        /**
+         * Whether the result set is already positioned at an unread item.
+         */
+        private boolean pending;
+
+        /**
+         * Constructor.
+         *
+         * @param query query returning the items.
+         * @param pending whether the result set is already positioned at
+         *                an unread item.
+         */
+        RowItems(Query query, boolean pending) {
+            this.query = query;
+            this.rs = query.rs;
+            this.pending = pending;
+        }
+
+        @Override
+        public boolean next() throws StorageException {
+
+            if (pending) {
+                pending = false;
+                return true;
+            }
+
+            try {
+                return rs.next();
+            } catch (SQLException e) {
+                throw new StorageException("Reading list failed", e);
+            }
+        }
+
+        @Override
+        public String getProduct() throws StorageException {
+            try {
+                return rs.getString("product");
+            } catch (SQLException e) {
+                throw new StorageException("Reading list failed", e);
+            }
+        }
+
+        @Override
+        public int getAmount() throws StorageException {
+            try {
+                return rs.getInt("amount");
+            } catch (SQLException e) {
+                throw new StorageException("Reading list failed", e);
+            }
+        }
+
+        @Override
+        public void close() throws StorageException {
+            query.close();
+        }
+    }
+
+    /**
+     * Query running on a borrowed connection.
+     *
+     * The connection stays borrowed until the query is closed.
+     */
+    private class Query implements AutoCloseable {
+
+        /**
+         * Borrowed connection.
+         */
+        private final Connection conn;
+
+        /**
+         * Result set of the query.
+         */
+        private final ResultSet rs;
+
+        /**
+         * Runs a query.
+         *
+         * @param query SQL query.
+         * @param fetch number of rows fetched at a time.
+         * @param params parameters of the query.
+         * @throws StorageException if the query fails.
+         */
+        Query(String query, int fetch, Object... params)
+                throws StorageException {
+
+            Connection borrowed = null;
+
+            try {
+                borrowed = pool.getConnection();
+                PreparedStatement statement = borrowed.prepareStatement(
+                        query, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetch);
+
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+
+                rs = statement.executeQuery();
+                conn = borrowed;
+            } catch (SQLException e) {
+                if (borrowed != null) {
+                    try {
+                        borrowed.close();
+                    } catch (SQLException closeFailure) {
+                        e.addSuppressed(closeFailure);
+                    }
+                }
+
+                throw new StorageException("Query failed", e);
+            }
+        }
+
+        /**
+         * Closes the result set and returns the connection to the pool.
+         *
+         * @throws StorageException if closing fails.
+         */
+        @Override
+        public void close() throws StorageException {
+
+            try {
+                try {
+                    rs.getStatement().close();
+                } finally {
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                throw new StorageException("Closing query failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package fi.ooproject;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+
+/**
+ * Runs backend requests off the container's request threads.
+ *
+ * Reads and writes run on separate fixed size thread pools, so slow saves
+ * can't take the threads of fast reads. Each pool has a bounded queue.
+ * A request arriving when its queue is full, or waiting in the queue
+ * longer than the timeout, is answered right away with 503 Service
+ * Unavailable. Only the wait is timed: once a handler starts, the request
+ * is answered with its result however long it runs, so a write that is
+ * carried out is never reported as failed.
+ *
+ * Configuration is read from {@link BackendConfig}:
+ * <ul>
+ * <li>executor.readThreads - threads handling reads (8)</li>
+ * <li>executor.writeThreads - threads handling writes (4)</li>
+ * <li>executor.queueSize - requests waiting per pool (100)</li>
+ * <li>executor.timeout - milliseconds a request may wait in the queue
+ *     before it is answered with 503 (30000)</li>
+ * </ul>
+ * Metrics are registered as MBean "fi.ooproject:type=RequestExecutor".
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class RequestExecutor implements RequestExecutorMXBean {
+
+    /**
+     * Shared executor, created on first use.
+     */
+    private static RequestExecutor instance;
+
+    /**
+     * Threads handling reads.
+     */
+    private final ThreadPoolExecutor reads;
+
+    /**
+     * Threads handling writes.
+     */
+    private final ThreadPoolExecutor writes;
+
+    /**
+     * Milliseconds a request may wait in the queue before it is answered
+     * with 503.
+     */
+    private final long timeout;
+
+    /**
+     * Number of rejected requests.
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * Number of timed out requests.
+     */
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    /**
+     * Returns the shared executor, creating it on first call.
+     *
+     * @return shared executor.
+     */
+    public static synchronized RequestExecutor getInstance() {
+
+        if (instance == null) {
+            instance = new RequestExecutor(
+                    BackendConfig.getInt("executor.readThreads", 8),
+                    BackendConfig.getInt("executor.writeThreads", 4),
+                    BackendConfig.getInt("executor.queueSize", 100),
+                    BackendConfig.getLong("executor.timeout", 30000));
+            instance.register();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param readThreads threads handling reads.
+     * @param writeThreads threads handling writes.
+     * @param queueSize requests waiting per pool.
+     * @param timeout milliseconds a request may wait in the queue before
+     *                it is answered with 503.
+     */
+    public RequestExecutor(int readThreads, int writeThreads, int queueSize,
+                           long timeout) {
+        this.timeout = timeout;
+        reads = newPool("request-read", readThreads, queueSize);
+        writes = newPool("request-write", writeThreads, queueSize);
+    }
+
+    /**
+     * Creates a fixed size pool of daemon threads with a bounded queue.
+     *
+     * @param name prefix of the thread names.
+     * @param threads number of threads.
+     * @param queueSize maximum number of waiting tasks.
+     * @return created pool.
+     */
+    private static ThreadPoolExecutor newPool(String name, int threads,
+                                              int queueSize) {
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = (r) -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Handles a read request on the read threads.
+     *
+     * @param response suspended response, resumed with the result.
+     * @param handler produces the response entity.
+     */
+    public void read(AsyncResponse response, Supplier<?> handler) {
+        submit(reads, response, handler);
+    }
+
+    /**
+     * Handles a write request on the write threads.
+     *
+     * @param response suspended response, resumed with the result.
+     * @param handler produces the response entity.
+     */
+    public void write(AsyncResponse response, Supplier<?> handler) {
+        submit(writes, response, handler);
+    }
+
+    /**
+     * Queues a request to a pool, or rejects it if the queue is full.
+     *
+     * Whichever comes first of the handler starting and the timeout
+     * claims the request. A timeout after the handler started extends the
+     * suspension instead of answering.
+     *
+     * @param pool pool handling the request.
+     * @param response suspended response, resumed with the result.
+     * @param handler produces the response entity.
+     */
+    private void submit(ThreadPoolExecutor pool, AsyncResponse response,
+                        Supplier<?> handler) {
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        response.setTimeoutHandler((timedOut) -> {
+            if (claimed.compareAndSet(false, true)) {
+                timeoutCount.incrementAndGet();
+                timedOut.resume(unavailable());
+            } else {
+                timedOut.setTimeout(0, TimeUnit.MILLISECONDS);
+            }
+        });
+        response.setTimeout(timeout, TimeUnit.MILLISECONDS);
+
+        try {
+            pool.execute(() -> {
+                /* Skip requests that timed out while queued. */
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+
+                /* Zero suspends without a timeout. */
+                response.setTimeout(0, TimeUnit.MILLISECONDS);
+
+                try {
+                    response.resume(handler.get());
+                } catch (RuntimeException e) {
+                    response.resume(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            claimed.set(true);
+            response.resume(unavailable());
+        }
+    }
+
+    /**
+     * Returns a 503 Service Unavailable response.
+     *
+     * @return response asking the client to retry later.
+     */
+    private static Response unavailable() {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", 1)
+                .entity("{\"success\": false, \"msg\": \"Server busy\"}")
+                .type("application/json")
+                .build();
+    }
+
+    /**
+     * Registers executor metrics as an MBean.
+     */
+    private void register() {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("fi.ooproject:type=RequestExecutor"));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int getActiveReads() {
+        return reads.getActiveCount();
+    }
+
+    @Override
+    public int getQueuedReads() {
+        return reads.getQueue().size();
+    }
+
+    @Override
+    public int getActiveWrites() {
+        return writes.getActiveCount();
+    }
+
+    @Override
+    public int getQueuedWrites() {
+        return writes.getQueue().size();
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return reads.getCompletedTaskCount() + writes.getCompletedTaskCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+}
@@ -0,0 +1,60 @@
+package fi.ooproject;
+
+/**
+ * Management interface exposing {@link RequestExecutor} metrics through JMX.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public interface RequestExecutorMXBean {
+
+    /**
+     * Returns the number of read requests being handled.
+     *
+     * @return number of active read requests.
+     */
+    int getActiveReads();
+
+    /**
+     * Returns the number of read requests waiting for a thread.
+     *
+     * @return number of queued read requests.
+     */
+    int getQueuedReads();
+
+    /**
+     * Returns the number of write requests being handled.
+     *
+     * @return number of active write requests.
+     */
+    int getActiveWrites();
+
+    /**
+     * Returns the number of write requests waiting for a thread.
+     *
+     * @return number of queued write requests.
+     */
+    int getQueuedWrites();
+
+    /**
+     * Returns the number of handled requests.
+     *
+     * @return number of completed requests.
+     */
+    long getCompletedCount();
+
+    /**
+     * Returns the number of requests rejected because a queue was full.
+     *
+     * @return number of rejected requests.
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the number of requests that timed out in the queue.
+     *
+     * @return number of timed out requests.
+     */
+    long getTimeoutCount();
+}
@@ -1,25 +1,38 @@
 package fi.ooproject;
 
 import java.io.*;
-import java.sql.*;
-import java.util.Properties;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.ejb.EJBException;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParsingException;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * Backend resources.
  * 
- * Handles HTTP calls from clients and saving to persistent storage (database).
+ * Handles HTTP calls from clients and saving to persistent storage, the
+ * {@link ListStore} chosen by {@link ListStores}. Requests are handled
+ * asynchronously by the {@link RequestExecutor}, reads and writes on
+ * separate threads.
  *
  * @author Juuso Pakarinen
  * @version 2016.1115
@@ -29,173 +42,633 @@ import javax.ws.rs.Produces;
 public class ShoppingResource implements Serializable {
     
     /**
-     * MYSQL database name.
+     * Storage holding the lists.
      */
-    private String db;
-    
+    private transient ListStore store;
+
     /**
-     * MYSQL username.
+     * Cache of responses read from the storage.
      */
-    private String user;
-    
+    private transient ListCache cache;
+
+    /**
+     * Executor running the requests.
+     */
+    private transient RequestExecutor executor;
+
     /**
-     * MYSQL password.
+     * Maximum number of items on a page.
      */
-    private String password;
+    private int maxPageSize;
 
     /**
      * Constructor.
-     * 
-     * Reads "db.propeties" file.
+     *
+     * Uses the shared {@link ListStores list storage},
+     * {@link ListCache response cache} and
+     * {@link RequestExecutor request executor}.
      */
     public ShoppingResource() {
-        Properties properties = new Properties();
-        ClassLoader loader = Thread.currentThread().getContextClassLoader();
-        
-        try (InputStream input = loader.getResourceAsStream("db.properties")) {
-            Class. forName( "com.mysql.jdbc.Driver" );
-            properties.load(input);
-            db = properties.getProperty("database");
-            user = properties.getProperty("user");
-            password = properties.getProperty("password");
-        } catch (ClassNotFoundException | IOException e) {
-            e.printStackTrace();
-        }
+        store = ListStores.getInstance();
+        cache = ListCache.getInstance();
+        executor = RequestExecutor.getInstance();
+        maxPageSize = BackendConfig.getInt("page.maxSize", 10000);
     }
-    
+
     /**
-     * Returns names of the tables found in the database.
+     * Returns names of the stored shopping lists.
+     *
+     * Names are streamed to the client while they are read, or served from
+     * the cache.
      * 
-     * @return JSON object containing info about query's success and
-     *         array contining names of the tables if any found, error message
-     *         if not.
+     * @param response suspended response, resumed with JSON object
+     *                 containing info about query's success and array
+     *                 contining names of the lists if any found, error
+     *                 message if not.
      */
     @GET
     @Produces("application/json")
-    public String getListNames() {
-        String result = "";
-        
-        try (Connection conn = DriverManager.getConnection(
-                ("jdbc:mysql://localhost/" + db), user , password)) {
-            try(Statement statement = conn.createStatement()) {
-                DatabaseMetaData md = conn.getMetaData();
-                ResultSet rs = md.getTables(null, null, "%", null);
-                result = "{\"success\": true, \"msg\": [";
-                
-                while (rs.next()) {
-                    /* Column 3 (from getTables()) is the TABLE_NAME */
-                    result += ("\"" + rs.getString(3) + "\",");
-                }
-                
-                /* Remove last comma */
-                result = result.substring(0, result.length() - 1);
-                result += "]}";
-            }
-        }  catch (SQLException e) {
-            e.printStackTrace();
-            return "{\"success\": false, \"msg\": "
-                    + "\"Error retrieving list names\"}";
-        }
-        
-        return result;
+    public void getListNames(@Suspended AsyncResponse response) {
+        executor.read(response, this::listNames);
+    }
+
+    /**
+     * Streams names of the stored shopping lists.
+     *
+     * @return response.
+     */
+    private Response listNames() {
+        return cachedRows(ListCache.NAMES, store::names,
+                (names, json) -> json.write(names.getName()),
+                "Error retrieving list names");
     }
 
     /**
-     * Returns contents of queried MYSQL table containing shopping list data.
+     * Returns contents of a stored shopping list.
+     *
+     * Items are streamed to the client while they are read, or served from
+     * the cache. The response carries an entity tag of the list's version.
+     * If the request's If-None-Match header matches it, only status
+     * 304 Not Modified is returned.
+     *
+     * If limit, after or sort is given, returns a single page of at most
+     * limit items (at most page.maxSize items) ordered by sort, "product"
+     * (default) or "amount". The response then also contains "next", the
+     * value of after for the following page, or null on the last page.
+     * Pages are read with keyset queries, so the cost of a page doesn't
+     * depend on how far into the list it is.
      * 
-     * @param name name of the queried table.
-     * @return JSON object containing info about query's success and
-     *         array containing shop item objects if any found, error message
-     *         if not.
+     * @param name name of the queried list.
+     * @param limit maximum number of items, 0 for all items.
+     * @param after cursor returned as "next" of the previous page.
+     * @param sort order of the items, "product" or "amount".
+     * @param request request containing the conditional headers.
+     * @param response suspended response, resumed with JSON object
+     *                 containing info about query's success and array
+     *                 containing shop item objects if any found, error
+     *                 message if not.
      */
     @GET
     @Path("/{name}")
     @Produces("application/json")
-    public String loadShopList(@PathParam("name") String name) {
-        String result = "";
-    
-        try (Connection conn = DriverManager.getConnection(
-                ("jdbc:mysql://localhost/" + db), user , password)) {
-            try(Statement statement = conn.createStatement()) {
-                ResultSet rs = statement.executeQuery("SELECT * FROM " + name);
-                result = "{\"success\": true, \"msg\": [";
-                
-                while (rs.next()) {
-                    result += ("{\"amount\":" + rs.getString("amount") 
-                           + ", \"product\":\"" + rs.getString("product") 
-                           + "\"},");
+    public void loadShopList(@PathParam("name") String name,
+                             @QueryParam("limit") @DefaultValue("0")
+                                     int limit,
+                             @QueryParam("after") String after,
+                             @QueryParam("sort") String sort,
+                             @Context Request request,
+                             @Suspended AsyncResponse response) {
+        executor.read(response,
+                () -> listContents(name, limit, after, sort, request));
+    }
+
+    /**
+     * Streams contents of a stored shopping list, or a page of it.
+     *
+     * @param name name of the queried list.
+     * @param limit maximum number of items, 0 for all items.
+     * @param after cursor returned as "next" of the previous page.
+     * @param sort order of the items, "product" or "amount".
+     * @param request request containing the conditional headers.
+     * @return response.
+     */
+    private Response listContents(String name, int limit, String after,
+                                  String sort, Request request) {
+        String key = ListCache.listKey(name);
+        boolean paged = limit > 0 || after != null || sort != null;
+        long generation = cache.getGeneration();
+        ListCache.Cached cached = paged ? null : cache.get(key);
+        String version;
+
+        if (paged && sort != null && !sort.equals("product")
+                && !sort.equals("amount")) {
+            return Response.ok("{\"success\": false, \"msg\": "
+                    + "\"Invalid sort\"}").build();
+        }
+
+        if (cached != null) {
+            version = cached.getTag();
+        } else {
+            try {
+                version = store.version(name);
+            } catch (StorageException e) {
+                e.printStackTrace();
+                version = null;
+            }
+
+            if (version == null) {
+                return Response.ok("{\"success\": false, \"msg\": "
+                        + "\"Error retrieving list from database\"}").build();
+            }
+        }
+
+        EntityTag tag = new EntityTag(version);
+        Response.ResponseBuilder notModified =
+                request.evaluatePreconditions(tag);
+
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        if (cached != null) {
+            return Response.ok(cached.getContent()).tag(tag).build();
+        }
+
+        if (paged) {
+            return page(name, limit, after, "amount".equals(sort))
+                    .tag(tag).build();
+        }
+
+        return streamed(key, version, generation, () -> store.items(name),
+                (items, json) -> json.writeStartObject()
+                        .write("amount", items.getAmount())
+                        .write("product", items.getProduct())
+                        .writeEnd(),
+                "Error retrieving list from database").tag(tag).build();
+    }
+
+    /**
+     * Returns a response streaming a page of a list.
+     *
+     * @param name name of the list.
+     * @param limit maximum number of items, 0 for the maximum page size.
+     * @param after cursor of the previous page, null for the first page.
+     * @param byAmount whether items are ordered by amount instead of
+     *                 product.
+     * @return response builder.
+     */
+    private Response.ResponseBuilder page(String name, int limit,
+                                          String after, boolean byAmount) {
+
+        int afterAmount = 0;
+        String afterProduct = after;
+
+        if (limit <= 0 || limit > maxPageSize) {
+            limit = maxPageSize;
+        }
+
+        if (after != null && byAmount) {
+            int separator = after.indexOf(':');
+
+            try {
+                afterAmount = Integer.parseInt(after.substring(0, separator));
+                afterProduct = after.substring(separator + 1);
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return Response.ok("{\"success\": false, \"msg\": "
+                        + "\"Invalid cursor\"}");
+            }
+        }
+
+        int pageSize = limit;
+        int cursorAmount = afterAmount;
+        String cursorProduct = afterProduct;
+        StreamingOutput stream = (output) -> streamPage(output, name,
+                byAmount, cursorAmount, cursorProduct, pageSize);
+        return Response.ok(stream);
+    }
+
+    /**
+     * Streams a page of items as array "msg" of a JSON success object,
+     * followed by cursor "next" of the following page.
+     *
+     * @param output response body.
+     * @param name name of the list.
+     * @param byAmount whether items are ordered by amount instead of
+     *                 product.
+     * @param afterAmount amount of the item to start after.
+     * @param afterProduct product of the item to start after, null for
+     *                     the first page.
+     * @param limit maximum number of items on the page.
+     * @throws IOException if writing fails or reading fails after
+     *                     writing has started.
+     */
+    private void streamPage(OutputStream output, String name,
+                            boolean byAmount, int afterAmount,
+                            String afterProduct, int limit)
+            throws IOException {
+
+        JsonGenerator json = null;
+        String error = "Error retrieving list from database";
+
+        /* One extra item tells whether there is a next page. */
+        try (ListStore.Items items = store.page(name, byAmount, afterAmount,
+                afterProduct, limit + 1)) {
+            String next = null;
+            String product = null;
+            int amount = 0;
+            int count = 0;
+            json = Json.createGenerator(output);
+            json.writeStartObject()
+                    .write("success", true)
+                    .writeStartArray("msg");
+
+            while (items.next()) {
+                if (count++ == limit) {
+                    /* Next page starts after the last written item. */
+                    next = byAmount ? amount + ":" + product : product;
+                    break;
+                }
+
+                amount = items.getAmount();
+                product = items.getProduct();
+                json.writeStartObject()
+                        .write("amount", amount)
+                        .write("product", product)
+                        .writeEnd();
+            }
+
+            json.writeEnd();
+
+            if (next == null) {
+                json.writeNull("next");
+            } else {
+                json.write("next", next);
+            }
+
+            json.writeEnd();
+            json.flush();
+        } catch (StorageException e) {
+            e.printStackTrace();
+
+            if (json != null) {
+                throw new IOException(error, e);
+            }
+
+            writeError(output, error);
+        }
+    }
+
+    /**
+     * Returns a cached response, or streams rows and caches the response
+     * if it succeeded.
+     *
+     * @param key cache key of the response.
+     * @param opener opens the cursor over the rows.
+     * @param writer writes a row to the array.
+     * @param error message of the error object.
+     * @param <C> type of the cursor.
+     * @return response.
+     */
+    private <C extends ListStore.Cursor> Response cachedRows(
+            String key, Opener<C> opener, RowWriter<C> writer, String error) {
+
+        long generation = cache.getGeneration();
+        ListCache.Cached cached = cache.get(key);
+
+        if (cached != null) {
+            return Response.ok(cached.getContent()).build();
+        }
+
+        return streamed(key, null, generation, opener, writer, error)
+                .build();
+    }
+
+    /**
+     * Returns a response streaming rows, caching the response if it
+     * succeeded.
+     *
+     * @param key cache key of the response.
+     * @param tag entity tag of the response, null if it has none.
+     * @param generation cache generation before reading.
+     * @param opener opens the cursor over the rows.
+     * @param writer writes a row to the array.
+     * @param error message of the error object.
+     * @param <C> type of the cursor.
+     * @return response builder.
+     */
+    private <C extends ListStore.Cursor> Response.ResponseBuilder streamed(
+            String key, String tag, long generation, Opener<C> opener,
+            RowWriter<C> writer, String error) {
+
+        StreamingOutput stream = (output) -> {
+            ListCache.Recording recording = cache.record(output);
+
+            if (streamRows(recording, opener, writer, error)) {
+                byte[] content = recording.toByteArray();
+
+                if (content != null) {
+                    cache.put(key, content, tag, generation);
                 }
-                
-                /* Remove last comma */
-                result = result.substring(0, result.length() - 1);
-                result += "]}";
             }
-        }  catch (SQLException e) {
+        };
+
+        return Response.ok(stream);
+    }
+
+    /**
+     * Streams rows as array "msg" of a JSON success object.
+     *
+     * Rows are written as the storage hands them out, so memory use
+     * doesn't depend on the number of rows. If reading fails or the list
+     * isn't found, an error object is written instead. A failure after
+     * writing has started cuts the response short.
+     *
+     * @param output response body.
+     * @param opener opens the cursor over the rows.
+     * @param writer writes a row to the array.
+     * @param error message of the error object.
+     * @param <C> type of the cursor.
+     * @return whether the rows were written.
+     * @throws IOException if writing fails or reading fails after
+     *                     writing has started.
+     */
+    private <C extends ListStore.Cursor> boolean streamRows(
+            OutputStream output, Opener<C> opener, RowWriter<C> writer,
+            String error) throws IOException {
+
+        JsonGenerator json = null;
+
+        try (C rows = opener.open()) {
+            if (rows == null) {
+                writeError(output, error);
+                return false;
+            }
+
+            json = Json.createGenerator(output);
+            json.writeStartObject()
+                    .write("success", true)
+                    .writeStartArray("msg");
+
+            while (rows.next()) {
+                writer.write(rows, json);
+            }
+
+            json.writeEnd().writeEnd();
+            json.flush();
+            return true;
+        } catch (StorageException e) {
             e.printStackTrace();
-            return "{\"success\": false, \"msg\": "
-                    + "\"Error retrieving list from database\"}";
+
+            if (json != null) {
+                throw new IOException(error, e);
+            }
+
+            writeError(output, error);
+            return false;
         }
-        
-        return result;
     }
 
     /**
-     * Save POSTed shopping list content to database.
+     * Writes a JSON error object.
+     *
+     * @param output response body.
+     * @param error error message.
+     */
+    private void writeError(OutputStream output, String error) {
+        JsonGenerator json = Json.createGenerator(output);
+        json.writeStartObject()
+                .write("success", false)
+                .write("msg", error)
+                .writeEnd();
+        json.flush();
+    }
+
+    /**
+     * Save POSTed shopping list content to storage.
+     *
+     * By default compares the POSTed items with the stored items and only
+     * writes the items that changed, keyed by product.
+     * If the body contains <code>"mode": "replace"</code>, every stored
+     * item of the list is removed and the POSTed items written again.
+     * A successful save is answered with the new version of the list as
+     * its ETag. A body that isn't JSON is answered with 400 Bad Request
+     * and a failed write with 500 Internal Server Error.
      * 
      * @param input POST body.
-     * @return JSON object containing info about query's success and
-     *         message.
+     * @param response suspended response, resumed with JSON object
+     *                 containing info about query's success and message.
      */
     @POST
     @Produces("application/json")
-    public String saveShopList(String input) {
-
-        try (Connection conn = DriverManager.getConnection(
-                ("jdbc:mysql://localhost/" + db), user , password)) {
-            try(Statement statement = conn.createStatement()) {
-                conn.setAutoCommit(false); 
-                JsonReader reader = Json.createReader(new StringReader(input));
-                JsonObject object = reader.readObject();
-                JsonArray jsonArr = object.getJsonArray("items");
-                String table = object.getString("name");
-                
-                String dropQuery = ("DROP TABLE IF EXISTS " + table);
-                String createQuery = ("CREATE TABLE IF NOT EXISTS "
-                        + table + " ("
-                        + "ID int NOT NULL AUTO_INCREMENT,"
-                        + "Amount int,"
-                        + "Product varchar(35),"
-                        + "PRIMARY KEY (ID))");
-                
-                int dropStatus = statement.executeUpdate(dropQuery);
-                int createStatus = statement.executeUpdate(createQuery);
-
-                for (int i = 0; i < jsonArr.size(); i++) {
-                    JsonObject tmp = jsonArr.getJsonObject(i);
-                    int amount = tmp.getInt("amount");
-                    String product = tmp.getString("product");
-                    
-                    String insertQuery = "INSERT INTO " + table 
-                            + " VALUES (null, " + amount 
-                            + ", \"" + product + "\")";
-                    
-                    int insertStatus = statement.executeUpdate(insertQuery);
-                    
-                    if (insertStatus < 0) {
-                        conn.rollback();
-                        return "{\"success\": false, \"msg\": "
-                                + "\"Error saving list to database\"}";
-                    }
+    public void saveShopList(String input,
+                             @Suspended AsyncResponse response) {
+        executor.write(response, () -> saveList(input));
+    }
+
+    /**
+     * Saves a POSTed shopping list.
+     *
+     * @param input POST body.
+     * @return response with JSON object containing info about query's
+     *         success and message.
+     */
+    private Response saveList(String input) {
+
+        String name;
+        String version;
+        boolean replace;
+        Map<String, Integer> items = new LinkedHashMap<>();
+
+        try {
+            JsonReader reader = Json.createReader(new StringReader(input));
+            JsonObject object = reader.readObject();
+            JsonArray jsonArr = object.getJsonArray("items");
+            name = object.getString("name");
+            replace = object.getString("mode", "diff").equals("replace");
+            reader.close();
+
+            for (int i = 0; i < jsonArr.size(); i++) {
+                JsonObject tmp = jsonArr.getJsonObject(i);
+                items.merge(tmp.getString("product"), tmp.getInt("amount"),
+                        Integer::sum);
+            }
+        } catch (JsonParsingException | EJBException e) {
+            e.printStackTrace();
+            return failure(Response.Status.BAD_REQUEST,
+                    "POST data not JSON");
+        }
+
+        try {
+            version = store.save(name, items, replace);
+        } catch (StorageException e) {
+            e.printStackTrace();
+            return failure(Response.Status.INTERNAL_SERVER_ERROR,
+                    "Error saving list to database");
+        } finally {
+            cache.invalidate(name);
+        }
+
+        return Response.ok("{\"success\": true, \"msg\": "
+                + "\"list added to database!\"}")
+                .tag(new EntityTag(version)).build();
+    }
+
+    /**
+     * Returns a response to a save that couldn't be read or carried out.
+     *
+     * Answers with an error status, so clients can tell it from a save
+     * that was read and rejected with status 200.
+     *
+     * @param status status of the response.
+     * @param message error message.
+     * @return response with JSON object containing the message.
+     */
+    private static Response failure(Response.Status status, String message) {
+        return Response.status(status)
+                .entity("{\"success\": false, \"msg\": \"" + message
+                        + "\"}")
+                .build();
+    }
+
+    /**
+     * Applies a batch of item operations to a stored list.
+     *
+     * The PATCH body names the list's operations in "ops", applied in
+     * order in a single transaction:
+     * <pre>
+     * {"op": "add", "product": "milk", "amount": 2}   adds to the amount
+     * {"op": "set", "product": "milk", "amount": 2}   sets the amount
+     * {"op": "remove", "product": "milk"}             removes the item
+     * {"op": "clear"}                                 removes every item
+     * </pre>
+     * Operations on the same product are combined first, so every product
+     * is written at most once. If the request has an If-Match header that
+     * doesn't match the list's current entity tag, nothing is changed and
+     * status 412 Precondition Failed is returned. A body that isn't JSON is
+     * answered with 400 Bad Request, an unknown operation with
+     * <code>"success": false</code> and a failed write with 500 Internal
+     * Server Error. A successful response carries the new entity tag.
+     *
+     * @param name name of the list.
+     * @param input PATCH body.
+     * @param request request containing the conditional headers.
+     * @param response suspended response, resumed with JSON object
+     *                 containing info about query's success and message.
+     */
+    @PATCH
+    @Path("/{name}")
+    @Produces("application/json")
+    public void patchShopList(@PathParam("name") String name, String input,
+                              @Context Request request,
+                              @Suspended AsyncResponse response) {
+        executor.write(response, () -> patchList(name, input, request));
+    }
+
+    /**
+     * Applies a PATCHed batch of item operations to a stored list.
+     *
+     * @param name name of the list.
+     * @param input PATCH body.
+     * @param request request containing the conditional headers.
+     * @return response.
+     */
+    private Response patchList(String name, String input, Request request) {
+
+        ListChanges changes = new ListChanges();
+
+        try {
+            JsonReader reader = Json.createReader(new StringReader(input));
+            JsonArray ops = reader.readObject().getJsonArray("ops");
+            reader.close();
+
+            for (int i = 0; i < ops.size(); i++) {
+                JsonObject op = ops.getJsonObject(i);
+                String type = op.getString("op");
+
+                switch (type) {
+                    case "add":
+                        changes.add(op.getString("product"),
+                                op.getInt("amount"));
+                        break;
+                    case "set":
+                        changes.set(op.getString("product"),
+                                op.getInt("amount"));
+                        break;
+                    case "remove":
+                        changes.remove(op.getString("product"));
+                        break;
+                    case "clear":
+                        changes.clear();
+                        break;
+                    default:
+                        return Response.ok("{\"success\": false, \"msg\": "
+                                + "\"Invalid operation\"}").build();
                 }
-                
-                conn.commit();
-                reader.close();
-                return "{\"success\": true, \"msg\": "
-                        + "\"list added to database!\"}";
             }
-        } catch (SQLException | JsonParsingException | EJBException e) {
+        } catch (JsonParsingException | EJBException e) {
+            e.printStackTrace();
+            return failure(Response.Status.BAD_REQUEST,
+                    "PATCH data not JSON");
+        }
+
+        Response.ResponseBuilder[] failed = new Response.ResponseBuilder[1];
+        String version;
+
+        try {
+            version = store.patch(name, changes, (current) -> {
+                failed[0] = request.evaluatePreconditions(
+                        new EntityTag(current));
+                return failed[0] == null;
+            });
+        } catch (StorageException e) {
             e.printStackTrace();
-            return "{\"success\": false, \"msg\": \"POST data not JSON\"}";
-        } 
+            return failure(Response.Status.INTERNAL_SERVER_ERROR,
+                    "Error saving list to database");
+        } finally {
+            cache.invalidate(name);
+        }
+
+        if (version == null) {
+            return failed[0].build();
+        }
+
+        return Response.ok("{\"success\": true, \"msg\": "
+                + "\"list updated in database!\"}")
+                .tag(new EntityTag(version)).build();
+    }
+
+    /**
+     * Opens a storage cursor.
+     *
+     * @param <C> type of the cursor.
+     */
+    @FunctionalInterface
+    private interface Opener<C extends ListStore.Cursor> {
+
+        /**
+         * Opens the cursor.
+         *
+         * @return cursor, or null if the list doesn't exist.
+         * @throws StorageException if reading fails.
+         */
+        C open() throws StorageException;
+    }
+
+    /**
+     * Writes current row of a storage cursor to a JSON array.
+     *
+     * @param <C> type of the cursor.
+     */
+    @FunctionalInterface
+    private interface RowWriter<C extends ListStore.Cursor> {
+
+        /**
+         * Writes current row.
+         *
+         * @param cursor cursor positioned at the row.
+         * @param json generator inside the array.
+         * @throws StorageException if reading the row fails.
+         */
+        void write(C cursor, JsonGenerator json) throws StorageException;
     }
 }
@@ -9,6 +9,11 @@ import javax.ws.rs.core.Application;
 /**
  * Backend launcher.
  *
+ * Responses are compressed with {@link GzipEncoding} for clients
+ * accepting gzip, unless gzip.enabled is false in {@link BackendConfig}.
+ * Compressed request bodies are always accepted, see
+ * {@link GzipDecoding}.
+ *
  * @author Juuso Pakarinen
  * @version 2016.1115
  * @since 1.8
@@ -22,6 +27,12 @@ public class StartApplication extends Application {
     @Override public Set<Class<?>> getClasses() {
         final Set<Class<?>> classes = new HashSet<Class<?>>();
         classes.add(ShoppingResource.class); 
+        classes.add(GzipDecoding.class);
+
+        if (Boolean.parseBoolean(BackendConfig.get("gzip.enabled", "true"))) {
+            classes.add(GzipEncoding.class);
+        }
+
         return classes;
     }
 }
@@ -0,0 +1,35 @@
+package fi.ooproject;
+
+/**
+ * Thrown when a {@link ListStore} fails to read or write lists.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class StorageException extends Exception {
+
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor.
+     *
+     * @param message description of the failure.
+     */
+    public StorageException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param message description of the failure.
+     * @param cause underlying exception.
+     */
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,160 @@
+package fi.ooproject;
+
+import java.nio.CharBuffer;
+import java.util.Random;
+
+/**
+ * Benchmark comparing {@link ItemLineParser} with the previous parsing code.
+ *
+ * Parses the same generated list file contents with the original blank
+ * line check, <code>split(" ")</code> and {@link Integer#parseInt(String)},
+ * and with {@link ItemLineParser} working straight on a
+ * {@link CharBuffer}. Prints the average time per line of both after
+ * warming up.
+ *
+ * Run with the frontend classes on the classpath, for example:
+ * <code>java -cp classes:bench fi.ooproject.ItemLineParserBenchmark</code>
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ItemLineParserBenchmark {
+
+    /**
+     * Number of lines in generated contents.
+     */
+    private static final int LINES = 1000000;
+
+    /**
+     * Number of measured rounds per parser.
+     */
+    private static final int ROUNDS = 10;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Command line arguments. Not used.
+     */
+    public static void main(String[] args) {
+
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < LINES; i++) {
+            if (i % 100 == 0) {
+                builder.append("   \n");
+            } else {
+                builder.append(random.nextInt(100)).append(" product")
+                        .append(random.nextInt(10000)).append('\n');
+            }
+        }
+
+        String contents = builder.toString();
+        String[] lines = contents.split("\n");
+        CharBuffer buffer = CharBuffer.wrap(contents.toCharArray());
+
+        /* Warm up. */
+        for (int i = 0; i < ROUNDS; i++) {
+            splitParse(lines);
+            bufferParse(buffer);
+        }
+
+        long splitTime = 0;
+        long bufferTime = 0;
+        long checksum = 0;
+
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            checksum += splitParse(lines);
+            splitTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            checksum -= bufferParse(buffer);
+            bufferTime += System.nanoTime() - start;
+        }
+
+        System.out.printf("split + parseInt: %.1f ns/line%n",
+                (double) splitTime / ROUNDS / LINES);
+        System.out.printf("ItemLineParser:   %.1f ns/line%n",
+                (double) bufferTime / ROUNDS / LINES);
+
+        if (checksum != 0) {
+            System.out.println("Parsers disagree!");
+        }
+    }
+
+    /**
+     * Parses lines the way loadFile did before {@link ItemLineParser}.
+     *
+     * @param lines lines to parse.
+     * @return sum of quantities.
+     */
+    private static long splitParse(String[] lines) {
+
+        long sum = 0;
+
+        for (String line : lines) {
+            if (line.length() > 0 && !(isEmpty(line))) {
+                String[] parts = line.split(" ");
+                ShopItem item = new ShopItem(parts[1],
+                        Integer.parseInt(parts[0]));
+                sum += item.getQuantity();
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns whether given string is empty, as the original
+     * {@link fi.ooproject.utils.Tools#isEmpty(String)} did.
+     *
+     * Checks every character even after finding one that isn't blank.
+     *
+     * @param s given string.
+     * @return whether given string contains only blank characters.
+     */
+    private static boolean isEmpty(String s) {
+
+        boolean empty = true;
+
+        if (s.length() > 0 && s != null) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) != ' ' && s.charAt(i) != '\t'
+                        && s.charAt(i) != '\n') {
+                    empty = false;
+                }
+            }
+        }
+
+        return empty;
+    }
+
+    /**
+     * Parses lines straight from a buffer with {@link ItemLineParser}.
+     *
+     * @param buffer buffer containing lines separated by line feeds.
+     * @return sum of quantities.
+     */
+    private static long bufferParse(CharBuffer buffer) {
+
+        long sum = 0;
+        int lineStart = 0;
+        int end = buffer.limit();
+
+        for (int i = 0; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                ShopItem item = ItemLineParser.parse(buffer, lineStart, i);
+
+                if (item != null) {
+                    sum += item.getQuantity();
+                }
+
+                lineStart = i + 1;
+            }
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,390 @@
+package fi.ooproject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Reads and writes shopping lists in compact binary format.
+ *
+ * File layout:
+ * <pre>
+ * magic      4 bytes "SHPL"
+ * version    1 byte
+ * count      varint, number of items
+ * items      count times:
+ *   name     varint header, then UTF-8 bytes for new names
+ *   quantity zigzag varint
+ * checksum   4 bytes, CRC32 of all preceding bytes
+ * </pre>
+ * Name header <code>length &lt;&lt; 1</code> introduces a new name of
+ * given byte length, which is added to the name dictionary. Header
+ * <code>id &lt;&lt; 1 | 1</code> refers to the dictionary entry with given
+ * id, so repeated names are stored only once.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class BinaryListFile {
+
+    /**
+     * Bytes identifying the format.
+     */
+    private static final byte[] MAGIC = {'S', 'H', 'P', 'L'};
+
+    /**
+     * Current format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of read and write buffers in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes given items to a file.
+     *
+     * @param path path of the written file.
+     * @param items items to be written.
+     * @param count number of items.
+     * @return checksum written to the end of the file.
+     * @throws IOException if writing fails.
+     */
+    public static int write(Path path, Iterable<ShopItem> items, int count)
+            throws IOException {
+
+        CRC32 crc = new CRC32();
+
+        try (OutputStream file = Files.newOutputStream(path)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(
+                            new CheckedOutputStream(file, crc), BUFFER_SIZE));
+            Map<String, Integer> dictionary = new HashMap<>();
+
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeVarint(out, count);
+
+            for (ShopItem item : items) {
+                Integer id = dictionary.get(item.getName());
+
+                if (id != null) {
+                    writeVarint(out, (id << 1) | 1);
+                } else {
+                    byte[] name = item.getName()
+                            .getBytes(StandardCharsets.UTF_8);
+                    dictionary.put(item.getName(), dictionary.size());
+                    writeVarint(out, name.length << 1);
+                    out.write(name);
+                }
+
+                int quantity = item.getQuantity();
+                writeVarint(out, (quantity << 1) ^ (quantity >> 31));
+            }
+
+            out.flush();
+            long checksum = crc.getValue();
+            DataOutputStream trailer = new DataOutputStream(file);
+            trailer.writeInt((int) checksum);
+            trailer.flush();
+            return (int) checksum;
+        }
+    }
+
+    /**
+     * Returns the checksum stored at the end of a file without verifying
+     * it.
+     *
+     * @param path path of the file.
+     * @return checksum stored in the file.
+     * @throws IOException if reading fails.
+     */
+    public static int readChecksum(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            long position = channel.size() - 4;
+
+            if (position < 0) {
+                throw new EOFException("File too short");
+            }
+
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, position + trailer.position()) < 0) {
+                    throw new EOFException("File too short");
+                }
+            }
+
+            trailer.flip();
+            return trailer.getInt();
+        }
+    }
+
+    /**
+     * Reads items from a file.
+     *
+     * Items are returned only after the checksum has been verified. Counts
+     * and lengths are checked against the size of the file before anything
+     * is allocated for them, so a corrupt file can't cause huge
+     * allocations.
+     *
+     * @param path path of the read file.
+     * @return items in the order they were written.
+     * @throws IOException if reading fails or file isn't a valid list file.
+     */
+    public static List<ShopItem> read(Path path) throws IOException {
+
+        long size = Files.size(path);
+        CRC32 crc = new CRC32();
+
+        try (InputStream file = Files.newInputStream(path)) {
+            /* Checksum covers everything but the last 4 bytes. */
+            BoundedInputStream bounded = new BoundedInputStream(file, size - 4);
+            CountedInputStream counted = new CountedInputStream(
+                    new CheckedInputStream(bounded, crc));
+            DataInputStream in = new DataInputStream(counted);
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new IOException("Not a list file");
+                }
+            }
+
+            int version = in.readUnsignedByte();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported version: " + version);
+            }
+
+            int count = readVarint(in);
+
+            /* Every item takes at least two bytes. */
+            if (count < 0 || count > remaining(bounded, counted) / 2) {
+                throw new IOException("Invalid item count: " + count);
+            }
+
+            List<ShopItem> items = new ArrayList<>(count);
+            List<String> dictionary = new ArrayList<>();
+            byte[] buffer = new byte[64];
+
+            for (int i = 0; i < count; i++) {
+                int header = readVarint(in);
+                String name;
+
+                if ((header & 1) == 1) {
+                    int id = header >>> 1;
+
+                    if (id >= dictionary.size()) {
+                        throw new IOException("Invalid name reference");
+                    }
+
+                    name = dictionary.get(id);
+                } else {
+                    int length = header >>> 1;
+
+                    if (length > remaining(bounded, counted)) {
+                        throw new IOException("Invalid name length: "
+                                + length);
+                    }
+
+                    if (length > buffer.length) {
+                        buffer = new byte[Math.max(length, buffer.length * 2)];
+                    }
+
+                    in.readFully(buffer, 0, length);
+                    name = new String(buffer, 0, length,
+                            StandardCharsets.UTF_8);
+                    dictionary.add(name);
+                }
+
+                int zigzag = readVarint(in);
+                items.add(new ShopItem(name, (zigzag >>> 1) ^ -(zigzag & 1)));
+            }
+
+            if (in.read() >= 0) {
+                throw new IOException("Unexpected data after items");
+            }
+
+            int checksum = new DataInputStream(file).readInt();
+
+            if (checksum != (int) crc.getValue()) {
+                throw new IOException("Checksum mismatch");
+            }
+
+            return items;
+        }
+    }
+
+    /**
+     * Returns the number of bytes left to read before the checksum.
+     *
+     * @param bounded stream limited to the bytes before the checksum.
+     * @param counted buffered stream reading from the bounded stream.
+     * @return number of unread bytes before the checksum.
+     */
+    private static long remaining(BoundedInputStream bounded,
+                                  CountedInputStream counted) {
+        return bounded.remaining + counted.buffered();
+    }
+
+    /**
+     * Writes an unsigned variable length integer, 7 bits per byte.
+     *
+     * @param out stream written to.
+     * @param value written value, treated as unsigned.
+     * @throws IOException if writing fails.
+     */
+    private static void writeVarint(DataOutputStream out, int value)
+            throws IOException {
+
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an unsigned variable length integer written by
+     * {@link #writeVarint(DataOutputStream, int)}.
+     *
+     * @param in stream read from.
+     * @return read value.
+     * @throws IOException if reading fails or value is malformed.
+     */
+    private static int readVarint(DataInputStream in) throws IOException {
+
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Input stream passing through a limited number of bytes.
+     *
+     * Leaves the rest of the underlying stream unread and open.
+     */
+    private static class BoundedInputStream extends InputStream {
+
+        /**
+         * Underlying stream.
+         */
+        private final InputStream in;
+
+        /**
+         * Number of bytes left to pass through.
+         */
+        private long remaining;
+
+        /**
+         * Constructor.
+         *
+         * @param in underlying stream.
+         * @param limit number of bytes to pass through.
+         * @throws EOFException if limit is negative.
+         */
+        BoundedInputStream(InputStream in, long limit) throws EOFException {
+
+            if (limit < 0) {
+                throw new EOFException("File too short");
+            }
+
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int b = in.read();
+
+            if (b >= 0) {
+                remaining--;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+
+            if (read > 0) {
+                remaining -= read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public void close() {
+            /* Underlying stream is closed by the owner. */
+        }
+    }
+
+    /**
+     * Buffered input stream telling how many bytes it has buffered.
+     */
+    private static class CountedInputStream extends BufferedInputStream {
+
+        /**
+         * Constructor.
+         *
+         * @param in underlying stream.
+         */
+        CountedInputStream(InputStream in) {
+            super(in, BUFFER_SIZE);
+        }
+
+        /**
+         * Returns the number of bytes read ahead but not yet consumed.
+         *
+         * @return number of buffered bytes.
+         */
+        int buffered() {
+            return count - pos;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Settings of the HTTP client used by {@link ServerConnection}.
+ *
+ * {@link #load()} reads the settings from "server.properties" on the class
+ * path. System properties named "shoplist." followed by the key override
+ * the file, for example <code>-Dshoplist.endpoint=http://host/api</code>.
+ * <ul>
+ * <li>endpoint - base URL of the REST api
+ *     (http://localhost:8080/ShoppingList/api)</li>
+ * <li>connectTimeout - milliseconds to wait for a connection (5000)</li>
+ * <li>readTimeout - milliseconds to wait for data of a response
+ *     (30000)</li>
+ * <li>requestTimeout - milliseconds before an asynchronous call fails
+ *     (30000)</li>
+ * <li>maxConnections - idle connections kept open per server for reuse
+ *     (8), see {@link #setMaxConnections(int)}</li>
+ * <li>gzip - whether responses are asked for compressed (true)</li>
+ * <li>gzipRequests - whether request bodies are compressed, only for
+ *     servers decoding gzip requests (false)</li>
+ * <li>chunked - whether request bodies are sent chunked (true)</li>
+ * </ul>
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ConnectionSettings {
+
+    /**
+     * Base URL of the REST api.
+     */
+    private String endpoint = "http://localhost:8080/ShoppingList/api";
+
+    /**
+     * Milliseconds to wait for a connection.
+     */
+    private int connectTimeout = 5000;
+
+    /**
+     * Milliseconds to wait for data of a response.
+     */
+    private int readTimeout = 30000;
+
+    /**
+     * Milliseconds before an asynchronous call fails.
+     */
+    private long requestTimeout = 30000;
+
+    /**
+     * Idle connections kept open per server for reuse.
+     *
+     * Applied JVM-wide through system property "http.maxConnections".
+     */
+    private int maxConnections = 8;
+
+    /**
+     * Whether responses are asked for compressed.
+     */
+    private boolean gzip = true;
+
+    /**
+     * Whether request bodies are compressed.
+     */
+    private boolean gzipRequests = false;
+
+    /**
+     * Whether request bodies are sent chunked.
+     */
+    private boolean chunked = true;
+
+    /**
+     * Returns settings read from "server.properties" and system
+     * properties.
+     *
+     * Settings not found keep their defaults.
+     *
+     * @return loaded settings.
+     */
+    public static ConnectionSettings load() {
+
+        Properties properties = new Properties();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        try (InputStream input =
+                     loader.getResourceAsStream("server.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("shoplist.")) {
+                properties.setProperty(key.substring("shoplist.".length()),
+                        System.getProperty(key));
+            }
+        }
+
+        ConnectionSettings settings = new ConnectionSettings();
+        settings.endpoint = properties.getProperty("endpoint",
+                settings.endpoint);
+        settings.connectTimeout = Integer.parseInt(properties.getProperty(
+                "connectTimeout", "" + settings.connectTimeout));
+        settings.readTimeout = Integer.parseInt(properties.getProperty(
+                "readTimeout", "" + settings.readTimeout));
+        settings.requestTimeout = Long.parseLong(properties.getProperty(
+                "requestTimeout", "" + settings.requestTimeout));
+        settings.maxConnections = Integer.parseInt(properties.getProperty(
+                "maxConnections", "" + settings.maxConnections));
+        settings.gzip = Boolean.parseBoolean(properties.getProperty(
+                "gzip", "" + settings.gzip));
+        settings.gzipRequests = Boolean.parseBoolean(properties.getProperty(
+                "gzipRequests", "" + settings.gzipRequests));
+        settings.chunked = Boolean.parseBoolean(properties.getProperty(
+                "chunked", "" + settings.chunked));
+        return settings;
+    }
+
+    /**
+     * Returns base URL of the REST api.
+     *
+     * @return base URL.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Sets base URL of the REST api.
+     *
+     * @param endpoint base URL.
+     */
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Returns milliseconds to wait for a connection.
+     *
+     * @return connect timeout in milliseconds.
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets milliseconds to wait for a connection.
+     *
+     * @param connectTimeout connect timeout in milliseconds.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Returns milliseconds to wait for data of a response.
+     *
+     * @return read timeout in milliseconds.
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Sets milliseconds to wait for data of a response.
+     *
+     * @param readTimeout read timeout in milliseconds.
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Returns milliseconds before an asynchronous call fails.
+     *
+     * @return request timeout in milliseconds.
+     */
+    public long getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Sets milliseconds before an asynchronous call fails.
+     *
+     * @param requestTimeout request timeout in milliseconds.
+     */
+    public void setRequestTimeout(long requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Returns number of idle connections kept open per server for reuse.
+     *
+     * @return maximum number of idle connections.
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets number of idle connections kept open per server for reuse.
+     *
+     * The JDK's HTTP client keeps one keep-alive cache for the whole JVM,
+     * sized by system property "http.maxConnections". The first
+     * {@link ServerConnection} sets that property from this value, unless
+     * it is already set, so the value applies to every HTTP connection of
+     * the application, not only to the connections of this client. The
+     * JDK reads the property once, on the first HTTP connection, so later
+     * changes have no effect.
+     *
+     * @param maxConnections maximum number of idle connections.
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Returns whether responses are asked for compressed.
+     *
+     * @return whether gzip responses are accepted.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Sets whether responses are asked for compressed.
+     *
+     * @param gzip whether gzip responses are accepted.
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Returns whether request bodies are compressed.
+     *
+     * @return whether request bodies are compressed.
+     */
+    public boolean isGzipRequests() {
+        return gzipRequests;
+    }
+
+    /**
+     * Sets whether request bodies are compressed.
+     *
+     * Enable only for servers that decode gzip request bodies. A server
+     * that doesn't can't read the compressed saves.
+     *
+     * @param gzipRequests whether request bodies are compressed.
+     */
+    public void setGzipRequests(boolean gzipRequests) {
+        this.gzipRequests = gzipRequests;
+    }
+
+    /**
+     * Returns whether request bodies are sent chunked.
+     *
+     * @return whether request bodies are chunked.
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    /**
+     * Sets whether request bodies are sent chunked.
+     *
+     * @param chunked whether request bodies are chunked.
+     */
+    public void setChunked(boolean chunked) {
+        this.chunked = chunked;
+    }
+}
@@ -112,8 +112,8 @@ public class DropboxManager {
                     Path path = Paths.get(inputFile.getAbsolutePath());
                     List<String> lines = new ArrayList<>();
 
-                    for (int i = 0; i < list.size(); i++) {
-                        lines.add(list.getItem(i).toString());
+                    for (ShopItem item : list) {
+                        lines.add(item.toString());
                     }
 
                     Files.write(path, lines, Charset.forName("UTF-8"));
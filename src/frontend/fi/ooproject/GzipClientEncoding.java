@@ -0,0 +1,120 @@
+package fi.ooproject;
+
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZIP content encoding for the HTTP client of {@link ServerConnection}.
+ *
+ * Asks the server for gzip encoded responses and decompresses them while
+ * they are read. If enabled, request bodies are compressed while they are
+ * written. That is off by default, since a server that doesn't decode
+ * gzip can't read the compressed requests.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class GzipClientEncoding implements ClientRequestFilter,
+        ReaderInterceptor, WriterInterceptor {
+
+    /**
+     * Name of the encoding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * Whether gzip encoded responses are asked for.
+     */
+    private final boolean acceptGzip;
+
+    /**
+     * Whether request bodies are compressed.
+     */
+    private final boolean compressRequests;
+
+    /**
+     * Constructor.
+     *
+     * @param acceptGzip whether gzip encoded responses are asked for.
+     * @param compressRequests whether request bodies are compressed.
+     */
+    public GzipClientEncoding(boolean acceptGzip, boolean compressRequests) {
+        this.acceptGzip = acceptGzip;
+        this.compressRequests = compressRequests;
+    }
+
+    /**
+     * Accepts gzip responses and marks request bodies for compression, as
+     * enabled.
+     *
+     * @param request request being sent.
+     */
+    @Override
+    public void filter(ClientRequestContext request) {
+
+        if (acceptGzip) {
+            request.getHeaders().putSingle(HttpHeaders.ACCEPT_ENCODING,
+                    GZIP);
+        }
+
+        if (compressRequests && request.hasEntity()) {
+            request.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+    }
+
+    /**
+     * Decompresses a response body sent with gzip encoding.
+     *
+     * @param context context of reading the body.
+     * @return read entity.
+     * @throws IOException if reading fails.
+     */
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context)
+            throws IOException {
+
+        if (GZIP.equalsIgnoreCase(
+                context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            context.setInputStream(
+                    new GZIPInputStream(context.getInputStream()));
+        }
+
+        return context.proceed();
+    }
+
+    /**
+     * Compresses a request body marked for gzip encoding.
+     *
+     * @param context context of writing the body.
+     * @throws IOException if writing fails.
+     */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context)
+            throws IOException {
+
+        if (!GZIP.equals(
+                context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            context.proceed();
+            return;
+        }
+
+        GZIPOutputStream gzip = new GZIPOutputStream(
+                context.getOutputStream());
+        context.setOutputStream(gzip);
+
+        try {
+            context.proceed();
+        } finally {
+            gzip.finish();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package fi.ooproject;
+
+import java.nio.CharBuffer;
+
+/**
+ * Parser for lines in "quantity name" format.
+ *
+ * Works directly on a range of a character array, so loaders can parse
+ * lines from their read buffers without splitting or copying them. Only
+ * the name of a valid item is copied to a new String. Accepts and
+ * rejects exactly the same lines as splitting the line with
+ * <code>split(" ")</code> and parsing the first part with
+ * {@link Integer#parseInt(String)}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ItemLineParser {
+
+    /**
+     * Parses a line.
+     *
+     * @param line line in format "quantity name".
+     * @return parsed item or null if line is empty or contains only
+     *         whitespace.
+     * @throws NumberFormatException if line isn't in valid format.
+     */
+    public static ShopItem parse(String line) throws NumberFormatException {
+        char[] chars = line.toCharArray();
+        return parse(chars, 0, chars.length);
+    }
+
+    /**
+     * Parses a line found in given range of a character buffer.
+     *
+     * Indexes are relative to the buffer's position. Buffers backed by an
+     * array are parsed in place, others are copied first.
+     *
+     * @param buffer buffer containing the line.
+     * @param start index of the first character of the line.
+     * @param end index after the last character of the line.
+     * @return parsed item or null if line is empty or contains only
+     *         whitespace.
+     * @throws NumberFormatException if line isn't in valid format.
+     */
+    public static ShopItem parse(CharBuffer buffer, int start, int end)
+            throws NumberFormatException {
+
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset() + buffer.position();
+            return parse(buffer.array(), offset + start, offset + end);
+        }
+
+        char[] chars = new char[end - start];
+        ((CharBuffer) buffer.duplicate().position(buffer.position() + start))
+                .get(chars);
+        return parse(chars, 0, chars.length);
+    }
+
+    /**
+     * Parses a line found in given range of a character array.
+     *
+     * The name of the item ends at the first space after the quantity, the
+     * rest of the line is ignored.
+     *
+     * @param chars array containing the line.
+     * @param start index of the first character of the line.
+     * @param end index after the last character of the line.
+     * @return parsed item or null if line is empty or contains only
+     *         whitespace.
+     * @throws NumberFormatException if line isn't in valid format.
+     */
+    public static ShopItem parse(char[] chars, int start, int end)
+            throws NumberFormatException {
+
+        if (isBlank(chars, start, end)) {
+            return null;
+        }
+
+        int space = indexOf(chars, ' ', start, end);
+
+        if (space < 0) {
+            throw new NumberFormatException("Missing name");
+        }
+
+        int quantity = parseInt(chars, start, space);
+        int nameStart = space + 1;
+        int nameEnd = indexOf(chars, ' ', nameStart, end);
+
+        if (nameEnd < 0) {
+            nameEnd = end;
+        }
+
+        /* split(" ") drops trailing empty parts, so an empty name is only
+         * valid if something follows it. */
+        if (nameStart == nameEnd && !hasNonSpace(chars, nameEnd, end)) {
+            throw new NumberFormatException("Missing name");
+        }
+
+        return new ShopItem(new String(chars, nameStart, nameEnd - nameStart),
+                quantity);
+    }
+
+    /**
+     * Returns whether given range contains only spaces, tabs or line feeds.
+     *
+     * @param chars array containing the range.
+     * @param start index of the first character of the range.
+     * @param end index after the last character of the range.
+     * @return whether the range is blank.
+     */
+    public static boolean isBlank(char[] chars, int start, int end) {
+
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+
+            if (c != ' ' && c != '\t' && c != '\n') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Parses a signed decimal integer in given range.
+     *
+     * @param chars array containing the integer.
+     * @param start index of the first character of the integer.
+     * @param end index after the last character of the integer.
+     * @return parsed integer.
+     * @throws NumberFormatException if range isn't a valid integer.
+     */
+    private static int parseInt(char[] chars, int start, int end)
+            throws NumberFormatException {
+
+        if (start >= end) {
+            throw new NumberFormatException("Missing quantity");
+        }
+
+        boolean negative = false;
+        int i = start;
+        char sign = chars[i];
+
+        if (sign == '-' || sign == '+') {
+            negative = (sign == '-');
+            i++;
+
+            if (i == end) {
+                throw new NumberFormatException("Missing quantity");
+            }
+        }
+
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+
+        for (; i < end; i++) {
+            int digit = Character.digit(chars[i], 10);
+
+            if (digit < 0) {
+                throw new NumberFormatException("Invalid quantity");
+            }
+
+            value = value * 10 + digit;
+
+            if (value > limit) {
+                throw new NumberFormatException("Quantity out of range");
+            }
+        }
+
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Returns the index of the first occurrence of given character in range.
+     *
+     * @param chars searched array.
+     * @param c searched character.
+     * @param start index where the search starts.
+     * @param end index where the search ends.
+     * @return index of the character or -1 if not found.
+     */
+    private static int indexOf(char[] chars, char c, int start,
+                               int end) {
+
+        for (int i = start; i < end; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns whether given range contains other characters than spaces.
+     *
+     * @param chars array containing the range.
+     * @param start index of the first character of the range.
+     * @param end index after the last character of the range.
+     * @return whether the range contains other characters than spaces.
+     */
+    private static boolean hasNonSpace(char[] chars, int start,
+                                       int end) {
+
+        for (int i = start; i < end; i++) {
+            if (chars[i] != ' ') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package fi.ooproject;
+
+/**
+ * File formats for storing a {@link ShoppingList shopping list} in local
+ * storage.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public enum ListFormat {
+
+    /**
+     * Text file with one "quantity name" line per item.
+     */
+    TEXT(".txt"),
+
+    /**
+     * Compact binary file, see {@link BinaryListFile}.
+     */
+    BINARY(".slb"),
+
+    /**
+     * Binary snapshot with an append-only log of later edits, see
+     * {@link ListJournal}.
+     */
+    JOURNAL(".slj");
+
+    /**
+     * File extension including the dot.
+     */
+    private final String extension;
+
+    /**
+     * Constructor.
+     *
+     * @param extension file extension including the dot.
+     */
+    ListFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns file extension including the dot.
+     *
+     * @return file extension including the dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the format matching the extension of given path.
+     *
+     * @param path path of a list file.
+     * @return format whose extension ends the path, {@link #TEXT} if none
+     *         does.
+     */
+    public static ListFormat of(String path) {
+
+        String lower = path.toLowerCase();
+
+        for (ListFormat format : values()) {
+            if (lower.endsWith(format.extension)) {
+                return format;
+            }
+        }
+
+        return TEXT;
+    }
+}
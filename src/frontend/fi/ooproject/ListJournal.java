@@ -0,0 +1,464 @@
+package fi.ooproject;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only journal persisting edits of a {@link ShoppingList}.
+ *
+ * The journal consists of a snapshot in {@link BinaryListFile binary}
+ * format and a log of edits made after the snapshot was written. Every
+ * edit appends a small record to the log, so the cost of persisting an
+ * edit doesn't depend on the size of the list. When the log grows larger
+ * than the list, the list is written as a new snapshot and the log is
+ * emptied. Loading replays the snapshot and then the log.
+ *
+ * The log starts with the checksum of the snapshot it applies to. A new
+ * snapshot is moved in place before the log is emptied, so after a crash
+ * between the two steps the old log no longer matches and is skipped
+ * instead of being applied twice. If the new log can't be created, the
+ * next recorded edit writes a new snapshot instead of a log record.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListJournal implements Closeable {
+
+    /**
+     * Extension of the log file, appended to the snapshot path.
+     */
+    public static final String LOG_EXTENSION = ".log";
+
+    /**
+     * Minimum number of log records before the log is compacted.
+     */
+    private static final int MIN_COMPACT_RECORDS = 1000;
+
+    /**
+     * Record type for {@link ShoppingList#addItem(ShopItem)}.
+     */
+    private static final byte ADD = 1;
+
+    /**
+     * Record type for removing an item.
+     */
+    private static final byte REMOVE = 2;
+
+    /**
+     * Record type for {@link ShoppingList#setQuantity(ShopItem, int)}.
+     */
+    private static final byte SET_QUANTITY = 3;
+
+    /**
+     * Record type for {@link ShoppingList#renameItem(ShopItem, String)}.
+     */
+    private static final byte RENAME = 4;
+
+    /**
+     * Record type for {@link ShoppingList#clearList()}.
+     */
+    private static final byte CLEAR = 5;
+
+    /**
+     * Journaled list.
+     */
+    private ShoppingList list;
+
+    /**
+     * Path of the snapshot file.
+     */
+    private Path snapshot;
+
+    /**
+     * Path of the log file.
+     */
+    private Path log;
+
+    /**
+     * Stream appending to the log, null until the journal is opened.
+     */
+    private DataOutputStream out;
+
+    /**
+     * Number of records in the log.
+     */
+    private int records;
+
+    /**
+     * Checksum of the snapshot the log applies to, 0 if there is none.
+     */
+    private int checksum;
+
+    /**
+     * Whether the replayed log ended with a partial record.
+     */
+    private boolean damaged;
+
+    /**
+     * Whether a new snapshot was written but no log applying to it could
+     * be created.
+     */
+    private boolean stale;
+
+    /**
+     * Constructor.
+     *
+     * @param list journaled list.
+     * @param snapshot path of the snapshot file.
+     */
+    public ListJournal(ShoppingList list, Path snapshot) {
+        this.list = list;
+        this.snapshot = snapshot;
+        this.log = Paths.get(snapshot.toString() + LOG_EXTENSION);
+        records = 0;
+        checksum = 0;
+    }
+
+    /**
+     * Returns path of the snapshot file.
+     *
+     * @return path of the snapshot file.
+     */
+    public Path getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Applies the snapshot and the log to the list.
+     *
+     * Must be called before the journal is attached to the list, so the
+     * replayed edits aren't journaled again. A record cut short by a crash
+     * at the end of the log is ignored.
+     *
+     * @throws IOException if reading the files fails.
+     */
+    public void replay() throws IOException {
+
+        checksum = 0;
+        records = 0;
+        damaged = false;
+
+        if (Files.exists(snapshot)) {
+            for (ShopItem item : BinaryListFile.read(snapshot)) {
+                list.addItem(item);
+            }
+
+            checksum = BinaryListFile.readChecksum(snapshot);
+        }
+
+        if (!Files.exists(log)) {
+            return;
+        }
+
+        try (InputStream file = Files.newInputStream(log)) {
+            DataInputStream in =
+                    new DataInputStream(new BufferedInputStream(file));
+
+            try {
+                if (in.readInt() != checksum) {
+                    System.out.println("Skipping journal of old snapshot");
+                    return;
+                }
+            } catch (EOFException e) {
+                return;
+            }
+
+            while (true) {
+                int type = in.read();
+
+                if (type < 0) {
+                    break;
+                }
+
+                try {
+                    apply((byte) type, in);
+                    records++;
+                } catch (EOFException e) {
+                    System.out.println("Journal ends with partial record");
+                    damaged = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a single log record to the list.
+     *
+     * @param type record type.
+     * @param in stream positioned after the record type.
+     * @throws IOException if reading fails or record type is unknown.
+     */
+    private void apply(byte type, DataInputStream in) throws IOException {
+
+        ShopItem item;
+
+        switch (type) {
+            case ADD:
+                String name = in.readUTF();
+                list.addItem(new ShopItem(name, in.readInt()));
+                break;
+            case REMOVE:
+                item = list.findItem(in.readUTF());
+
+                if (item != null) {
+                    list.removeItem(item);
+                }
+                break;
+            case SET_QUANTITY:
+                item = list.findItem(in.readUTF());
+                int quantity = in.readInt();
+
+                if (item != null) {
+                    list.setQuantity(item, quantity);
+                }
+                break;
+            case RENAME:
+                item = list.findItem(in.readUTF());
+                String newName = in.readUTF();
+
+                if (item != null) {
+                    list.renameItem(item, newName);
+                }
+                break;
+            case CLEAR:
+                list.clearList();
+                break;
+            default:
+                throw new IOException("Unknown journal record: " + type);
+        }
+    }
+
+    /**
+     * Opens the log for appending.
+     *
+     * Continues a log replayed by {@link #replay()}, otherwise starts a new
+     * log applying to current snapshot. A log ending with a partial record
+     * is compacted first.
+     *
+     * @throws IOException if opening the log fails.
+     */
+    public void open() throws IOException {
+
+        if (out != null) {
+            return;
+        }
+
+        if (damaged) {
+            /* Don't append after the partial record. */
+            compact();
+        } else if (records > 0) {
+            out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(log, StandardOpenOption.APPEND)));
+        } else {
+            newLog();
+        }
+    }
+
+    /**
+     * Records an item added to the list.
+     *
+     * @param name name of the added item.
+     * @param quantity quantity of the added item.
+     */
+    public void recordAdd(String name, int quantity) {
+
+        try {
+            if (ready()) {
+                out.writeByte(ADD);
+                out.writeUTF(name);
+                out.writeInt(quantity);
+                appended();
+            }
+        } catch (IOException e) {
+            System.out.println("Journal write failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Records an item removed from the list.
+     *
+     * @param name name of the removed item.
+     */
+    public void recordRemove(String name) {
+
+        try {
+            if (ready()) {
+                out.writeByte(REMOVE);
+                out.writeUTF(name);
+                appended();
+            }
+        } catch (IOException e) {
+            System.out.println("Journal write failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Records a new quantity set to an item.
+     *
+     * @param name name of the item.
+     * @param quantity new quantity.
+     */
+    public void recordSetQuantity(String name, int quantity) {
+
+        try {
+            if (ready()) {
+                out.writeByte(SET_QUANTITY);
+                out.writeUTF(name);
+                out.writeInt(quantity);
+                appended();
+            }
+        } catch (IOException e) {
+            System.out.println("Journal write failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Records a renamed item.
+     *
+     * @param name old name of the item.
+     * @param newName new name of the item.
+     */
+    public void recordRename(String name, String newName) {
+
+        try {
+            if (ready()) {
+                out.writeByte(RENAME);
+                out.writeUTF(name);
+                out.writeUTF(newName);
+                appended();
+            }
+        } catch (IOException e) {
+            System.out.println("Journal write failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Records clearing of the list.
+     */
+    public void recordClear() {
+
+        try {
+            if (ready()) {
+                out.writeByte(CLEAR);
+                appended();
+            }
+        } catch (IOException e) {
+            System.out.println("Journal write failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flushes an appended record and compacts the log if it has grown
+     * larger than the list.
+     *
+     * @throws IOException if writing fails.
+     */
+    private void appended() throws IOException {
+
+        out.flush();
+        records++;
+
+        if (records > Math.max(MIN_COMPACT_RECORDS, list.size())) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes current state of the list as a new snapshot and empties
+     * the log.
+     *
+     * The snapshot is written to a temporary file first and moved over
+     * the old one, so a crash never leaves a partial snapshot.
+     *
+     * @throws IOException if writing fails.
+     */
+    public void compact() throws IOException {
+
+        Path tmp = Paths.get(snapshot.toString() + ".tmp");
+        int written = BinaryListFile.write(tmp, list, list.size());
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        checksum = written;
+        damaged = false;
+        /* The old log no longer applies, so it can't take more records. */
+        stale = true;
+        close();
+        newLog();
+        stale = false;
+    }
+
+    /**
+     * Returns whether a record can be appended to the log.
+     *
+     * If an earlier compaction couldn't create a new log, compacts again
+     * instead. Edits are recorded after they have been made, so the new
+     * snapshot already contains the recorded edit.
+     *
+     * @return whether the record should be appended to the log.
+     * @throws IOException if the journal is closed or compacting fails.
+     */
+    private boolean ready() throws IOException {
+
+        if (out != null) {
+            return true;
+        }
+
+        if (!stale) {
+            throw new IOException("Journal is not open");
+        }
+
+        compact();
+        return false;
+    }
+
+    /**
+     * Replaces the log with an empty one applying to current snapshot.
+     *
+     * @throws IOException if writing fails.
+     */
+    private void newLog() throws IOException {
+
+        out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(log, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)));
+        out.writeInt(checksum);
+        out.flush();
+        records = 0;
+    }
+
+    /**
+     * Closes the log.
+     *
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (out != null) {
+            try {
+                out.close();
+            } finally {
+                out = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package fi.ooproject;
+
+import javax.ws.rs.core.EntityTag;
+import java.util.List;
+
+/**
+ * Page of a shopping list loaded from the server.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListPage {
+
+    /**
+     * Items on the page.
+     */
+    private List<ShopItem> items;
+
+    /**
+     * Cursor of the following page, null on the last page.
+     */
+    private String next;
+
+    /**
+     * Entity tag of the list version the page was read from, null if
+     * unknown.
+     */
+    private EntityTag tag;
+
+    /**
+     * Constructor.
+     *
+     * @param items items on the page.
+     * @param next cursor of the following page, null on the last page.
+     */
+    public ListPage(List<ShopItem> items, String next) {
+        this(items, next, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param items items on the page.
+     * @param next cursor of the following page, null on the last page.
+     * @param tag entity tag of the list version, null if unknown.
+     */
+    public ListPage(List<ShopItem> items, String next, EntityTag tag) {
+        this.items = items;
+        this.next = next;
+        this.tag = tag;
+    }
+
+    /**
+     * Returns items on the page.
+     *
+     * @return items on the page.
+     */
+    public List<ShopItem> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns cursor of the following page.
+     *
+     * @return cursor of the following page, null on the last page.
+     */
+    public String getNext() {
+        return next;
+    }
+
+    /**
+     * Returns entity tag of the list version the page was read from.
+     *
+     * Pages with equal tags were read from the same version of the list.
+     *
+     * @return entity tag, null if unknown.
+     */
+    public EntityTag getTag() {
+        return tag;
+    }
+
+    /**
+     * Returns whether there are more pages after this one.
+     *
+     * @return whether there are more pages.
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
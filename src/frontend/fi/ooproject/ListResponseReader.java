@@ -0,0 +1,151 @@
+package fi.ooproject;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for list responses of the server.
+ *
+ * Reads a response body of form
+ * <code>{"success": true, "msg": [{"amount": 1, "product": "milk"}],
+ * "next": null}</code> with a {@link JsonParser}, handing each item on as
+ * soon as it is decoded. Nothing but the current item is kept in memory,
+ * so the cost of reading doesn't depend on the size of the list. If
+ * "success" is false, "msg" is the error message.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListResponseReader {
+
+    /**
+     * Whether the server reported success.
+     */
+    private boolean success = false;
+
+    /**
+     * Error message, null if there is none.
+     */
+    private String message;
+
+    /**
+     * Cursor of the following page, null if there is none.
+     */
+    private String next;
+
+    /**
+     * Reads a response body.
+     *
+     * @param input response body, closed after reading.
+     * @param onSuccess run before the first item, if the server reports
+     *                  success.
+     * @param sink receives the items in order.
+     * @return whether the server reported success.
+     * @throws JsonException if the body isn't valid JSON or has an invalid
+     *                       item.
+     */
+    public boolean read(InputStream input, Runnable onSuccess,
+                        Consumer<ShopItem> sink) throws JsonException {
+
+        try (JsonParser parser = Json.createParser(input)) {
+            String key = null;
+
+            while (parser.hasNext()) {
+                JsonParser.Event event = parser.next();
+
+                switch (event) {
+                    case KEY_NAME:
+                        key = parser.getString();
+                        break;
+                    case VALUE_TRUE:
+                        /* The server writes "success" before the items. */
+                        if ("success".equals(key)) {
+                            success = true;
+                            onSuccess.run();
+                        }
+                        break;
+                    case VALUE_STRING:
+                        if ("msg".equals(key)) {
+                            message = parser.getString();
+                        } else if ("next".equals(key)) {
+                            next = parser.getString();
+                        }
+                        break;
+                    case START_ARRAY:
+                        if ("msg".equals(key) && success) {
+                            readItems(parser, sink);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        return success;
+    }
+
+    /**
+     * Reads item objects until the end of the array.
+     *
+     * Fields other than "product" and "amount" are skipped.
+     *
+     * @param parser parser positioned at the start of the array.
+     * @param sink receives the items in order.
+     * @throws JsonException if the body isn't valid JSON, an item has no
+     *                       string product or a field isn't of its type.
+     */
+    private void readItems(JsonParser parser, Consumer<ShopItem> sink)
+            throws JsonException {
+
+        while (parser.next() == JsonParser.Event.START_OBJECT) {
+            String product = null;
+            int amount = 0;
+
+            while (parser.next() == JsonParser.Event.KEY_NAME) {
+                String field = parser.getString();
+                JsonParser.Event value = parser.next();
+
+                if (field.equals("product")
+                        && value == JsonParser.Event.VALUE_STRING) {
+                    product = parser.getString();
+                } else if (field.equals("amount")
+                        && value == JsonParser.Event.VALUE_NUMBER) {
+                    amount = parser.getInt();
+                } else if (field.equals("product") || field.equals("amount")
+                        || value == JsonParser.Event.START_OBJECT
+                        || value == JsonParser.Event.START_ARRAY) {
+                    throw new JsonException("Invalid item field: " + field);
+                }
+            }
+
+            if (product == null) {
+                throw new JsonException("Item without product");
+            }
+
+            sink.accept(new ShopItem(product, amount));
+        }
+    }
+
+    /**
+     * Returns the error message of a failed response.
+     *
+     * @return error message, null if there is none.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns cursor of the following page.
+     *
+     * @return cursor of the following page, null on the last page.
+     */
+    public String getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,23 @@
+package fi.ooproject;
+
+/**
+ * Receives progress updates while a {@link ShoppingList shopping list} is
+ * loaded from a file.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface LoadProgress {
+
+    /**
+     * Called periodically during loading and once after the whole file
+     * has been read.
+     *
+     * @param bytesRead number of bytes read from the file so far.
+     * @param totalBytes size of the file in bytes.
+     * @param items number of items read from the file so far.
+     */
+    void update(long bytesRead, long totalBytes, long items);
+}
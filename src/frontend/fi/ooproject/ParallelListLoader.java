@@ -0,0 +1,358 @@
+package fi.ooproject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads very large list files in parallel.
+ *
+ * Memory-maps the file, splits it into chunks ending at line breaks and
+ * parses the chunks in a {@link ForkJoinPool}. Each chunk is aggregated
+ * into a partial map from item name to summed quantity. Partial maps are
+ * merged in file order, so the resulting shop list is identical to the one
+ * produced by {@link ShoppingList#loadFile(String, boolean)}.
+ *
+ * The charset must encode line breaks as single ASCII bytes, which holds
+ * for UTF-8, ISO-8859-1 and other ASCII compatible charsets.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ParallelListLoader {
+
+    /**
+     * Chunk size in bytes used when none is given.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Number of bytes read at a time while searching for a line break.
+     */
+    private static final int SCAN_SIZE = 4096;
+
+    /**
+     * Pool running the parse tasks.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Charset used to decode files.
+     */
+    private Charset charset;
+
+    /**
+     * Approximate size of a chunk in bytes.
+     */
+    private int chunkSize;
+
+    /**
+     * Constructor.
+     *
+     * Uses common pool, default charset and default chunk size.
+     */
+    public ParallelListLoader() {
+        this(ForkJoinPool.commonPool(), Charset.defaultCharset(),
+                DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pool pool running the parse tasks.
+     * @param charset ASCII compatible charset used to decode files.
+     * @param chunkSize approximate size of a chunk in bytes.
+     * @throws IllegalArgumentException if chunk size isn't positive.
+     */
+    public ParallelListLoader(ForkJoinPool pool, Charset charset,
+                              int chunkSize) throws IllegalArgumentException {
+
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.pool = pool;
+        this.charset = charset;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads list from file to given shop list.
+     *
+     * The shop list is modified only after the whole file has been parsed.
+     *
+     * @param list shop list to which the items are added.
+     * @param src absolute path for reading file.
+     * @param combine whether the content of read file is appended
+     *                to current shop list or overwritten.
+     * @return whether reading the file succeeded.
+     */
+    public boolean load(ShoppingList list, String src, boolean combine) {
+
+        try {
+
+            Path path = new File(src).toPath();
+            Map<String, Integer> items;
+
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.READ)) {
+                long[] bounds = findChunkBounds(channel);
+                items = pool.invoke(new ChunkTask(channel, bounds, 0,
+                        bounds.length - 1));
+            }
+
+            if (!combine) {
+                list.clearList();
+            }
+
+            for (Map.Entry<String, Integer> entry : items.entrySet()) {
+                list.addItem(new ShopItem(entry.getKey(), entry.getValue()));
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("File not found");
+            e.printStackTrace();
+            return false;
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid path, use for example:" +
+                    " C:/User/You/file.txt");
+            e.printStackTrace();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns offsets splitting the file into chunks.
+     *
+     * Every offset except the first and last one is right after a line
+     * feed or carriage return, so no line is split between chunks.
+     *
+     * @param channel channel of the read file.
+     * @return ascending offsets starting with 0 and ending with file size.
+     * @throws IOException if reading the file fails or a line is too long
+     *                     to be mapped.
+     */
+    private long[] findChunkBounds(FileChannel channel) throws IOException {
+
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+        long position = 0;
+        bounds.add(0L);
+
+        while (size - position > chunkSize) {
+            position += chunkSize;
+            boolean found = false;
+
+            while (!found && position < size) {
+                scan.clear();
+                int read = channel.read(scan, position);
+
+                if (read <= 0) {
+                    break;
+                }
+
+                for (int i = 0; i < read; i++) {
+                    byte b = scan.get(i);
+
+                    if (b == '\n' || b == '\r') {
+                        position += i + 1;
+                        found = true;
+
+                        /* A line feed after the bound would only start the
+                         * next chunk with an empty line. */
+                        if (b == '\r' && i + 1 < read
+                                && scan.get(i + 1) == '\n') {
+                            position++;
+                        }
+                        break;
+                    }
+                }
+
+                if (!found) {
+                    position += read;
+                }
+            }
+
+            if (position >= size) {
+                break;
+            }
+
+            bounds.add(position);
+        }
+
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+
+            if (i > 0 && result[i] - result[i - 1] > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at offset "
+                        + result[i - 1]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a range of chunks, splitting the range in halves until a
+     * single chunk is left.
+     */
+    private class ChunkTask extends RecursiveTask<Map<String, Integer>> {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Channel of the read file.
+         */
+        private final FileChannel channel;
+
+        /**
+         * Chunk offsets in the file.
+         */
+        private final long[] bounds;
+
+        /**
+         * Index of the first chunk in range.
+         */
+        private final int from;
+
+        /**
+         * Index after the last chunk in range.
+         */
+        private final int to;
+
+        /**
+         * Constructor.
+         *
+         * @param channel channel of the read file.
+         * @param bounds chunk offsets in the file.
+         * @param from index of the first chunk in range.
+         * @param to index after the last chunk in range.
+         */
+        ChunkTask(FileChannel channel, long[] bounds, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Returns items of the range in order of first occurrence.
+         *
+         * @return map from item name to summed quantity.
+         */
+        @Override
+        protected Map<String, Integer> compute() {
+
+            if (to - from <= 1) {
+                return parseChunk(from);
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask right = new ChunkTask(channel, bounds, middle, to);
+            right.fork();
+            Map<String, Integer> items =
+                    new ChunkTask(channel, bounds, from, middle).compute();
+
+            /* Names first seen on the right are appended after the left. */
+            for (Map.Entry<String, Integer> entry : right.join().entrySet()) {
+                items.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+
+            return items;
+        }
+
+        /**
+         * Maps, decodes and parses a single chunk.
+         *
+         * Treats line feeds, carriage returns and carriage return followed
+         * by line feed as line breaks, same as
+         * {@link java.io.BufferedReader#readLine()}.
+         *
+         * @param chunk index of the chunk.
+         * @return map from item name to summed quantity.
+         */
+        private Map<String, Integer> parseChunk(int chunk) {
+
+            Map<String, Integer> items = new LinkedHashMap<>();
+            long start = bounds[chunk];
+            long length = bounds[chunk + 1] - start;
+
+            if (length <= 0) {
+                return items;
+            }
+
+            try {
+                MappedByteBuffer bytes = channel.map(
+                        FileChannel.MapMode.READ_ONLY, start, length);
+                CharBuffer chars = charset.newDecoder().decode(bytes);
+                int lineStart = 0;
+                int end = chars.limit();
+
+                for (int i = 0; i < end; i++) {
+                    char c = chars.get(i);
+
+                    if (c == '\n' || c == '\r') {
+                        addLine(items, chars, lineStart, i);
+
+                        if (c == '\r' && i + 1 < end
+                                && chars.get(i + 1) == '\n') {
+                            i++;
+                        }
+
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (lineStart < end) {
+                    addLine(items, chars, lineStart, end);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return items;
+        }
+
+        /**
+         * Parses a line and merges its item to the partial map.
+         *
+         * @param items partial map from item name to summed quantity.
+         * @param chars decoded chunk.
+         * @param start index of the first character of the line.
+         * @param end index after the last character of the line.
+         */
+        private void addLine(Map<String, Integer> items, CharBuffer chars,
+                             int start, int end) {
+
+            ShopItem item = ShoppingList.parseItem(chars, start, end);
+
+            if (item != null) {
+                items.merge(item.getName(), item.getQuantity(),
+                        Integer::sum);
+            }
+        }
+    }
+}
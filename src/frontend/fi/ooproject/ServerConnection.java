@@ -1,19 +1,49 @@
 package fi.ooproject;
 
+import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParsingException;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.*;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.json.Json;
 import javax.json.JsonArray;
+import javax.json.JsonException;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Handles RESTful communication between application (client) and server.
  *
+ * Every call has a blocking version and an asynchronous version returning
+ * a {@link CompletableFuture}. Asynchronous calls run on the JAX-RS async
+ * invoker. Their futures complete with the same value the blocking version
+ * returns, or exceptionally if the server can't be reached or doesn't
+ * answer in time. Cancelling a future aborts its request.
+ *
  * @author Juuso Pakarinen
  * @version 2016.1218
  * @since 1.8
@@ -43,18 +73,92 @@ public class ServerConnection {
      */
     private String targetList;
 
+    /**
+     * Lists loaded from the server and their entity tags, by list name.
+     */
+    private Map<String, RemoteCopy> copies;
+
+    /**
+     * Milliseconds before an asynchronous call fails with a timeout.
+     */
+    private long timeout;
+
+    /**
+     * Whether loaded items are printed to the console.
+     */
+    private boolean printItems = false;
+
+    /**
+     * Whether request bodies are sent with chunked transfer encoding.
+     */
+    private boolean chunked;
+
+    /**
+     * Thread failing asynchronous calls that time out.
+     */
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor((r) -> {
+                Thread thread = new Thread(r, "server-connection-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     /**
      * Constructor.
      *
+     * Uses the {@link ConnectionSettings#load() configured settings}.
+     *
      * @param list instance of shopping list.
      */
     public ServerConnection(ShoppingList list) {
+        this(list, ConnectionSettings.load());
+    }
+
+    /**
+     * Constructor.
+     *
+     * Connections are kept open after a response has been read and reused
+     * by later calls, so a session making many calls doesn't open a new
+     * connection for each of them. Sets system property
+     * "http.maxConnections", unless it is already set, which sizes the
+     * keep-alive cache of the whole JVM. See
+     * {@link ConnectionSettings#setMaxConnections(int)}.
+     *
+     * @param list instance of shopping list.
+     * @param settings settings of the HTTP client.
+     */
+    public ServerConnection(ShoppingList list, ConnectionSettings settings) {
         this.list = list;
+
+        /* JVM-wide size of the JDK keep-alive cache, read on first
+         * connection. */
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections",
+                    "" + settings.getMaxConnections());
+        }
+
         client = ClientBuilder.newClient();
-        WebTarget rootTarget =
-                client.target("http://localhost:8080/ShoppingList/api");
+        /* HttpURLConnection doesn't accept PATCH without this. */
+        client.property(
+                "jersey.config.client.httpUrlConnection.setMethodWorkaround",
+                true);
+        client.property("jersey.config.client.connectTimeout",
+                settings.getConnectTimeout());
+        client.property("jersey.config.client.readTimeout",
+                settings.getReadTimeout());
+
+        if (settings.isGzip() || settings.isGzipRequests()) {
+            client.register(new GzipClientEncoding(settings.isGzip(),
+                    settings.isGzipRequests()));
+        }
+
+        WebTarget rootTarget = client.target(settings.getEndpoint());
         resourceTarget = rootTarget.path("list");
         targetList = "";
+        timeout = settings.getRequestTimeout();
+        setChunked(settings.isChunked());
+        /* Responses of asynchronous calls update copies off the caller. */
+        copies = new ConcurrentHashMap<>();
     }
 
     /**
@@ -65,12 +169,40 @@ public class ServerConnection {
      *         failed.
      */
     public String[] getListNames() {
-        String[] listnames;
         Invocation.Builder builder =
                 resourceTarget.request(MediaType.APPLICATION_JSON);
 
         try {
-            Response response = builder.get();
+            return readNames(builder.get());
+        } catch (ProcessingException  e) {
+            System.out.println("Unable to connect to the server.");
+            return new String[0];
+        }
+    }
+
+    /**
+     * Returns names of the lists stored on the server without blocking.
+     *
+     * @return future completed with an array containing the names of
+     *         found lists, or an empty array if the query failed at
+     *         backend.
+     */
+    public CompletableFuture<String[]> getListNamesAsync() {
+        return call(resourceTarget.request(MediaType.APPLICATION_JSON),
+                "GET", null, this::readNames);
+    }
+
+    /**
+     * Reads list names from a response.
+     *
+     * @param response response to a GET request for the names.
+     * @return an array containing the names of found lists, empty if the
+     *         query failed.
+     */
+    private String[] readNames(Response response) {
+        String[] listnames;
+
+        try {
             JsonReader reader = Json.createReader(
                     new StringReader(response.readEntity(String.class)));
             JsonObject object = reader.readObject();
@@ -87,9 +219,6 @@ public class ServerConnection {
             }
 
             return listnames;
-        } catch (ProcessingException  e) {
-            System.out.println("Unable to connect to the server.");
-            return new String[0];
         } catch (JsonParsingException e) {
             System.out.println("Bad response.");
             return new String[0];
@@ -101,7 +230,11 @@ public class ServerConnection {
      *
      * Requests list of {@link fi.ooproject.ShopItem items} stored in certain
      * table in database. If valid list is returned, adds items to the shopping
-     * list.
+     * list. A previously loaded copy of the list is revalidated with its
+     * entity tag and reused if the list hasn't changed on the server.
+     *
+     * Items are added to the shopping list while the response is read, so
+     * a response cut short leaves the items read before it on the list.
      *
      * @param listName table from which the items are queried from.
      * @param combine whether the content of read file is appended
@@ -110,42 +243,300 @@ public class ServerConnection {
      *         the shopping list.
      */
     public boolean loadList(String listName, boolean combine) {
-        WebTarget target = resourceTarget.path(listName);
-        Invocation.Builder builder = target.request(MediaType.APPLICATION_JSON);
+        RemoteCopy copy = copies.get(listName);
 
         try {
-            Response response = builder.get();
-            JsonReader reader = Json.createReader(
-                    new StringReader(response.readEntity(String.class)));
-            JsonObject object = reader.readObject();
+            return readList(listName, copy, listRequest(listName, copy).get(),
+                    combine ? () -> { } : list::clearList,
+                    list::addItem) != null;
+        } catch (ProcessingException  e) {
+            System.out.println("Unable to connect to the server.");
+            return false;
+        }
+    }
 
-            if (object.getBoolean("success")) {
-                JsonArray jsonArr = object.getJsonArray("msg");
+    /**
+     * Makes GET request to the server without blocking.
+     *
+     * Works like {@link #loadList(String, boolean)}, but the items are
+     * added to the shopping list by the given executor, so they can be
+     * added on the thread owning the list.
+     *
+     * @param listName name of the list.
+     * @param combine whether the loaded items are appended to current shop
+     *                list or replace it.
+     * @param executor runs the adding of the items.
+     * @return future completed with whether server call was success and
+     *         received items were added to the shopping list.
+     */
+    public CompletableFuture<Boolean> loadListAsync(String listName,
+                                                    boolean combine,
+                                                    Executor executor) {
+        RemoteCopy copy = copies.get(listName);
+        CompletableFuture<Map<String, Integer>> loaded =
+                call(listRequest(listName, copy), "GET", null,
+                        (response) -> readList(listName, copy, response,
+                                () -> { }, (item) -> { }));
 
-                if (!combine) {
-                    list.clearList();
-                }
+        return cancelling(loaded.thenApplyAsync((items) -> {
+            if (items == null) {
+                return false;
+            }
 
-                for (int i = 0; i < jsonArr.size(); i++) {
-                    System.out.println(jsonArr.get(i).toString());
-                    reader = Json.createReader(
-                            new StringReader(jsonArr.get(i).toString()));
-                    JsonObject tmp = reader.readObject();
-                    list.addItem(new ShopItem(tmp.getString("product"),
-                            tmp.getInt("amount")));
+            addItems(items, combine);
+            return true;
+        }, executor), loaded);
+    }
+
+    /**
+     * Builds GET request for a list, revalidating a copy if there is one.
+     *
+     * @param listName name of the list.
+     * @param copy copy of the list loaded before, or null.
+     * @return request builder.
+     */
+    private Invocation.Builder listRequest(String listName, RemoteCopy copy) {
+        Invocation.Builder builder = resourceTarget.path(listName)
+                .request(MediaType.APPLICATION_JSON);
+
+        if (copy != null) {
+            builder = builder.header(HttpHeaders.IF_NONE_MATCH, copy.tag);
+        }
+
+        return builder;
+    }
+
+    /**
+     * Reads items of a list from a response and keeps a copy of them.
+     *
+     * The response body is parsed as a stream and every item is handed to
+     * the sink as soon as it is decoded.
+     *
+     * @param listName name of the list.
+     * @param copy copy of the list sent for revalidation, or null.
+     * @param response response to the GET request.
+     * @param onSuccess run before the first item, if loading succeeds.
+     * @param sink receives the items in order.
+     * @return map from product to amount or null if loading failed.
+     */
+    private Map<String, Integer> readList(String listName, RemoteCopy copy,
+                                          Response response,
+                                          Runnable onSuccess,
+                                          Consumer<ShopItem> sink) {
+
+        if (copy != null && response.getStatus()
+                == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            response.close();
+            onSuccess.run();
+
+            for (Map.Entry<String, Integer> item : copy.items.entrySet()) {
+                sink.accept(new ShopItem(item.getKey(), item.getValue()));
+            }
+
+            return copy.items;
+        }
+
+        Map<String, Integer> items = new LinkedHashMap<>();
+        ListResponseReader reader = new ListResponseReader();
+
+        try {
+            boolean success = reader.read(
+                    response.readEntity(InputStream.class), onSuccess,
+                    (item) -> {
+                        items.merge(item.getName(), item.getQuantity(),
+                                Integer::sum);
+                        printItem(item);
+                        sink.accept(item);
+                    });
+
+            if (success) {
+                if (response.getEntityTag() != null) {
+                    copies.put(listName,
+                            new RemoteCopy(response.getEntityTag(), items));
+                } else {
+                    copies.remove(listName);
                 }
 
-                return true;
+                return items;
             } else {
-                System.out.println(object.getString("msg"));
-                return false;
+                copies.remove(listName);
+                System.out.println(reader.getMessage());
+                return null;
             }
+        } catch (JsonException e) {
+            copies.remove(listName);
+            System.out.println("Bad response.");
+            return null;
+        }
+    }
+
+    /**
+     * Prints a loaded item to the console if printing is on.
+     *
+     * @param item loaded item.
+     */
+    private void printItem(ShopItem item) {
+
+        if (printItems) {
+            System.out.println("  " + item.getQuantity() + " "
+                    + item.getName());
+        }
+    }
+
+    /**
+     * Makes GET request for a single page of a list.
+     *
+     * Pages are read in order by passing {@link ListPage#getNext()} of the
+     * previous page as after. The items aren't added to the shopping list.
+     *
+     * @param listName name of the list.
+     * @param after cursor of the previous page, null for the first page.
+     * @param limit maximum number of items on the page.
+     * @param sort order of the items, "product", "amount" or null for the
+     *             server default.
+     * @return loaded page or null if the server call failed.
+     */
+    public ListPage loadPage(String listName, String after, int limit,
+                             String sort) {
+
+        try {
+            return readPage(pageRequest(listName, after, limit, sort).get());
         } catch (ProcessingException  e) {
             System.out.println("Unable to connect to the server.");
-            return false;
-        } catch (JsonParsingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Makes GET request for a single page of a list without blocking.
+     *
+     * @param listName name of the list.
+     * @param after cursor of the previous page, null for the first page.
+     * @param limit maximum number of items on the page.
+     * @param sort order of the items, "product", "amount" or null for the
+     *             server default.
+     * @return future completed with the loaded page or null if the query
+     *         failed at backend.
+     * @see #loadPage(String, String, int, String)
+     */
+    public CompletableFuture<ListPage> loadPageAsync(String listName,
+                                                     String after, int limit,
+                                                     String sort) {
+        return call(pageRequest(listName, after, limit, sort), "GET", null,
+                this::readPage);
+    }
+
+    /**
+     * Loads a list page by page without blocking.
+     *
+     * Pages are requested one after another. The items of each page are
+     * added to the shopping list by the given executor before the next
+     * page is requested, so they can be added on the thread owning the
+     * list and shown as soon as they arrive. Cancelling the returned
+     * future aborts the page request in flight.
+     *
+     * If every page was read from the same version of the list, the items
+     * are kept as a copy of the list, as {@link #loadList(String, boolean)}
+     * does. Loading the list again then only revalidates the copy, and
+     * {@link #saveChanges(String)} sends only the changes.
+     *
+     * @param listName name of the list.
+     * @param combine whether the loaded items are appended to current shop
+     *                list or replace it.
+     * @param pageSize maximum number of items on a page.
+     * @param executor runs the adding of the items.
+     * @return future completed with whether every page was loaded.
+     */
+    public CompletableFuture<Boolean> loadPagesAsync(String listName,
+                                                     boolean combine,
+                                                     int pageSize,
+                                                     Executor executor) {
+        PagedLoad load = new PagedLoad(listName, combine, pageSize, executor);
+        load.request(null);
+        return load.result;
+    }
+
+    /**
+     * Builds GET request for a single page of a list.
+     *
+     * @param listName name of the list.
+     * @param after cursor of the previous page, null for the first page.
+     * @param limit maximum number of items on the page.
+     * @param sort order of the items, or null for the server default.
+     * @return request builder.
+     */
+    private Invocation.Builder pageRequest(String listName, String after,
+                                           int limit, String sort) {
+        WebTarget target = resourceTarget.path(listName)
+                .queryParam("limit", limit);
+
+        if (after != null) {
+            target = target.queryParam("after", after);
+        }
+
+        if (sort != null) {
+            target = target.queryParam("sort", sort);
+        }
+
+        return target.request(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Reads a page of a list from a response.
+     *
+     * @param response response to the GET request.
+     * @return loaded page or null if loading failed.
+     */
+    private ListPage readPage(Response response) {
+        List<ShopItem> items = new ArrayList<>();
+        ListResponseReader reader = new ListResponseReader();
+
+        try {
+            if (reader.read(response.readEntity(InputStream.class), () -> { },
+                    (item) -> {
+                        printItem(item);
+                        items.add(item);
+                    })) {
+                return new ListPage(items, reader.getNext(),
+                        response.getEntityTag());
+            } else {
+                System.out.println(reader.getMessage());
+                return null;
+            }
+        } catch (JsonException e) {
             System.out.println("Bad response.");
-            return false;
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether a copy of the list is kept from an earlier load.
+     *
+     * Such a list is cheaper to load with
+     * {@link #loadList(String, boolean)}, which only revalidates the copy.
+     *
+     * @param listName name of the list.
+     * @return whether a copy of the list is kept.
+     */
+    public boolean hasCopy(String listName) {
+        return copies.containsKey(listName);
+    }
+
+    /**
+     * Adds copies of loaded items to the shopping list.
+     *
+     * @param items map from product to amount.
+     * @param combine whether the items are appended to current shop list
+     *                or replace it.
+     */
+    private void addItems(Map<String, Integer> items, boolean combine) {
+
+        if (!combine) {
+            list.clearList();
+        }
+
+        for (Map.Entry<String, Integer> item : items.entrySet()) {
+            list.addItem(new ShopItem(item.getKey(), item.getValue()));
         }
     }
 
@@ -159,35 +550,497 @@ public class ServerConnection {
      * @return whether server call was successful.
      */
     public boolean saveList(String listName) {
-        String body = "{\"name\": \"" + listName + "\", \"items\": [";
+        return saveItems(listName, list);
+    }
 
-        for (int i = 0; i < list.size(); i++) {
-            ShopItem item = list.getItem(i);
-            body += "{\"amount\": " + item.getQuantity()
-                    + ", \"product\": \"" + item.getName() + "\"},";
-        }
+    /**
+     * Makes POST request saving given items as a list.
+     *
+     * @param listName name of the list.
+     * @param items items of the list.
+     * @return whether server call was successful.
+     */
+    public boolean saveItems(String listName, Iterable<ShopItem> items) {
 
-        /* Remove last comma */
-        body = body.substring(0, body.length() - 1);
-        body += "]}";
+        Map<String, Integer> sent = itemMap(items);
 
         try {
             Response response = resourceTarget
                     .request(MediaType.APPLICATION_JSON)
-                    .post(Entity.entity(body, MediaType.APPLICATION_JSON));
+                    .post(Entity.entity(listBody(listName, sent),
+                            MediaType.APPLICATION_JSON));
+            return readSaved(listName, sent, response);
+        } catch (ProcessingException e) {
+            System.out.println("Unable to connect to the server.");
+            return false;
+        }
+    }
+
+    /**
+     * Makes POST request to the server without blocking.
+     *
+     * The items of the shopping list are copied before returning, so the
+     * list can be changed while the request is sent.
+     *
+     * @param listName name of the list.
+     * @return future completed with whether the list was saved.
+     * @see #saveList(String)
+     */
+    public CompletableFuture<Boolean> saveListAsync(String listName) {
+        Map<String, Integer> items = itemMap(list);
+
+        return call(resourceTarget.request(MediaType.APPLICATION_JSON),
+                "POST", Entity.entity(listBody(listName, items),
+                        MediaType.APPLICATION_JSON),
+                (response) -> readSaved(listName, items, response));
+    }
+
+    /**
+     * Returns POST body containing given items.
+     *
+     * The body is generated with a {@link JsonGenerator} straight to the
+     * request stream while it is sent, so it is never held in memory as
+     * a whole and names are escaped properly.
+     *
+     * @param listName name of the list.
+     * @param items map from product to amount.
+     * @return POST body.
+     */
+    private StreamingOutput listBody(String listName,
+                                     Map<String, Integer> items) {
+        return (output) -> {
+            JsonGenerator json = Json.createGenerator(output);
+            json.writeStartObject()
+                    .write("name", listName)
+                    .writeStartArray("items");
+
+            for (Map.Entry<String, Integer> item : items.entrySet()) {
+                json.writeStartObject()
+                        .write("amount", item.getValue())
+                        .write("product", item.getKey())
+                        .writeEnd();
+            }
+
+            json.writeEnd().writeEnd();
+            /* Flush only, the client closes the request stream. */
+            json.flush();
+        };
+    }
+
+    /**
+     * Reads result of a POST request and updates the copy of the list.
+     *
+     * @param listName name of the saved list.
+     * @param items map from product to amount sent to the server.
+     * @param response response to the POST request.
+     * @return whether the list was saved.
+     */
+    private boolean readSaved(String listName, Map<String, Integer> items,
+                              Response response) {
+
+        try {
+            return readResult(listName, items, response);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads result of a save and updates the copy of the list.
+     *
+     * @param listName name of the saved list.
+     * @param items map from product to amount sent to the server.
+     * @param response response to the save.
+     * @return whether the list was saved, false if the server rejected
+     *         the save.
+     * @throws IOException if the response isn't a result of a save.
+     */
+    private boolean readResult(String listName, Map<String, Integer> items,
+                               Response response) throws IOException {
+
+        JsonObject object;
+
+        try {
             JsonReader reader = Json.createReader(
                     new StringReader(response.readEntity(String.class)));
-            JsonObject object = reader.readObject();
+            object = reader.readObject();
+        } catch (JsonException e) {
+            throw new IOException("Bad response.", e);
+        }
 
-            System.out.println(object.getString("msg"));
-            return object.getBoolean("success");
-        } catch (ProcessingException e) {
-            System.out.println("Unable to connect to the server.");
+        JsonValue success = object.get("success");
+
+        if (success == null
+                || (success.getValueType() != JsonValue.ValueType.TRUE
+                && success.getValueType() != JsonValue.ValueType.FALSE)) {
+            throw new IOException("Bad response.");
+        }
+
+        boolean saved = success.getValueType() == JsonValue.ValueType.TRUE;
+        System.out.println(object.getString("msg", ""));
+
+        if (saved && response.getEntityTag() != null) {
+            copies.put(listName,
+                    new RemoteCopy(response.getEntityTag(), items));
+        } else {
+            copies.remove(listName);
+        }
+
+        return saved;
+    }
+
+    /**
+     * Makes PATCH request sending only the changes made to the list since
+     * it was last loaded from or saved to the server.
+     *
+     * Lists without a copy from an earlier load or save are sent whole with
+     * {@link #saveList(String)}. If the list was changed on the server
+     * after the copy was loaded, nothing is saved and the copy is dropped,
+     * so loading the list again gets the current version.
+     *
+     * @param listName name of the list in database.
+     * @return whether server call was successful.
+     */
+    public boolean saveChanges(String listName) {
+
+        try {
+            return sendChanges(listName, list);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
             return false;
-        } catch (JsonParsingException e) {
-            System.out.println("Bad response.");
+        }
+    }
+
+    /**
+     * Saves given items as a list, sending only the changes made since the
+     * list was last loaded from or saved to the server.
+     *
+     * Works like {@link #saveChanges(String)}, but tells a save that
+     * failed on the way apart from a save the server rejected. If the
+     * list was changed on the server after the copy was loaded, the
+     * whole list is saved instead of the changes.
+     *
+     * @param listName name of the list in database.
+     * @param items items of the list.
+     * @return whether the server saved the items, false if it read the
+     *         request and rejected it.
+     * @throws IOException if the server can't be reached, answers with an
+     *                     error status or the response can't be read.
+     */
+    public boolean sendChanges(String listName, Iterable<ShopItem> items)
+            throws IOException {
+
+        RemoteCopy copy = copies.get(listName);
+        Map<String, Integer> current = itemMap(items);
+
+        try {
+            if (copy != null) {
+                String body = changesBody(copy, current);
+
+                if (body == null) {
+                    return true;
+                }
+
+                Response response = changesRequest(listName, copy).method(
+                        "PATCH",
+                        Entity.entity(body, MediaType.APPLICATION_JSON));
+
+                if (response.getStatus() != Response.Status
+                        .PRECONDITION_FAILED.getStatusCode()) {
+                    return readResult(listName, current, checked(response));
+                }
+
+                response.close();
+                copies.remove(listName);
+                System.out.println("List was changed on the server.");
+            }
+
+            return readResult(listName, current, checked(resourceTarget
+                    .request(MediaType.APPLICATION_JSON)
+                    .post(Entity.entity(listBody(listName, current),
+                            MediaType.APPLICATION_JSON))));
+        } catch (ProcessingException e) {
+            throw new IOException("Unable to connect to the server.", e);
+        }
+    }
+
+    /**
+     * Returns a response unless its status is an error.
+     *
+     * The server answers a request it couldn't read or carry out with an
+     * error status, and a request it read and rejected with
+     * <code>"success": false</code>.
+     *
+     * @param response response to a request.
+     * @return the response.
+     * @throws IOException if the status of the response is an error.
+     */
+    private static Response checked(Response response) throws IOException {
+
+        if (response.getStatus() >= 400) {
+            response.close();
+            throw new IOException("Server answered with status "
+                    + response.getStatus() + ".");
+        }
+
+        return response;
+    }
+
+    /**
+     * Makes PATCH request sending only the changes made to the list
+     * without blocking.
+     *
+     * The request body is built from the shopping list before returning.
+     *
+     * @param listName name of the list in database.
+     * @return future completed with whether the changes were saved.
+     * @see #saveChanges(String)
+     */
+    public CompletableFuture<Boolean> saveChangesAsync(String listName) {
+        RemoteCopy copy = copies.get(listName);
+
+        if (copy == null) {
+            return saveListAsync(listName);
+        }
+
+        Map<String, Integer> items = itemMap(list);
+        String body = changesBody(copy, items);
+
+        if (body == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return call(changesRequest(listName, copy), "PATCH",
+                Entity.entity(body, MediaType.APPLICATION_JSON),
+                (response) -> readPatched(listName, items, response));
+    }
+
+    /**
+     * Returns given items as a map, summing amounts of the same product.
+     *
+     * @param list items of a list.
+     * @return map from product to amount.
+     */
+    private static Map<String, Integer> itemMap(Iterable<ShopItem> list) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+
+        for (ShopItem item : list) {
+            items.merge(item.getName(), item.getQuantity(), Integer::sum);
+        }
+
+        return items;
+    }
+
+    /**
+     * Builds PATCH body with operations turning a copy into given items.
+     *
+     * @param copy copy of the list as stored on the server.
+     * @param items map from product to amount.
+     * @return PATCH body or null if nothing changed.
+     */
+    private String changesBody(RemoteCopy copy, Map<String, Integer> items) {
+        StringWriter body = new StringWriter();
+        JsonGenerator json = Json.createGenerator(body);
+        int changes = 0;
+
+        json.writeStartObject().writeStartArray("ops");
+
+        for (Map.Entry<String, Integer> item : items.entrySet()) {
+            if (!item.getValue().equals(copy.items.get(item.getKey()))) {
+                json.writeStartObject()
+                        .write("op", "set")
+                        .write("product", item.getKey())
+                        .write("amount", item.getValue())
+                        .writeEnd();
+                changes++;
+            }
+        }
+
+        for (String product : copy.items.keySet()) {
+            if (!items.containsKey(product)) {
+                json.writeStartObject()
+                        .write("op", "remove")
+                        .write("product", product)
+                        .writeEnd();
+                changes++;
+            }
+        }
+
+        json.writeEnd().writeEnd();
+        json.close();
+        return changes == 0 ? null : body.toString();
+    }
+
+    /**
+     * Builds PATCH request conditional on the version of a copy.
+     *
+     * @param listName name of the list.
+     * @param copy copy the changes were made to.
+     * @return request builder.
+     */
+    private Invocation.Builder changesRequest(String listName,
+                                              RemoteCopy copy) {
+        return resourceTarget.path(listName)
+                .request(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, copy.tag);
+    }
+
+    /**
+     * Reads result of a PATCH request and updates the copy of the list.
+     *
+     * @param listName name of the list.
+     * @param items map from product to amount sent to the server.
+     * @param response response to the PATCH request.
+     * @return whether the changes were saved.
+     */
+    private boolean readPatched(String listName, Map<String, Integer> items,
+                                Response response) {
+
+        if (response.getStatus()
+                == Response.Status.PRECONDITION_FAILED.getStatusCode()) {
+            response.close();
+            copies.remove(listName);
+            System.out.println("List was changed on the server.");
             return false;
         }
+
+        return readSaved(listName, items, response);
+    }
+
+    /**
+     * Sends a request on the async invoker and reads its response.
+     *
+     * The future fails with {@link TimeoutException} if no response
+     * arrives in time. Cancelling it aborts the request.
+     *
+     * @param builder request builder.
+     * @param method HTTP method.
+     * @param entity request body, null if there is none.
+     * @param reader reads the result from the response.
+     * @param <T> type of the result.
+     * @return future completed with the result.
+     */
+    private <T> CompletableFuture<T> call(Invocation.Builder builder,
+                                          String method, Entity<?> entity,
+                                          Function<Response, T> reader) {
+        CompletableFuture<Response> sent = new CompletableFuture<>();
+        InvocationCallback<Response> callback =
+                new InvocationCallback<Response>() {
+
+            @Override
+            public void completed(Response response) {
+                /* Nobody reads a response arriving after cancel. */
+                if (!sent.complete(response)) {
+                    response.close();
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                sent.completeExceptionally(throwable);
+            }
+        };
+        Future<Response> request = entity == null
+                ? builder.async().method(method, callback)
+                : builder.async().method(method, entity, callback);
+        ScheduledFuture<?> timer = TIMER.schedule(
+                () -> sent.completeExceptionally(new TimeoutException(
+                        "No response in " + timeout + " ms")),
+                timeout, TimeUnit.MILLISECONDS);
+
+        sent.whenComplete((response, error) -> {
+            timer.cancel(false);
+
+            if (error != null) {
+                request.cancel(true);
+            }
+        });
+
+        return cancelling(sent.thenApply(reader), sent);
+    }
+
+    /**
+     * Makes cancelling a dependent future cancel its source too.
+     *
+     * @param dependent future returned to the caller.
+     * @param source future the dependent one waits for.
+     * @param <T> type of the result.
+     * @return the dependent future.
+     */
+    private static <T> CompletableFuture<T> cancelling(
+            CompletableFuture<T> dependent, CompletableFuture<?> source) {
+        dependent.whenComplete((result, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+
+        return dependent;
+    }
+
+    /**
+     * Returns whether request bodies are sent with chunked transfer
+     * encoding.
+     *
+     * @return whether request bodies are chunked.
+     */
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    /**
+     * Sets whether request bodies are sent with chunked transfer encoding.
+     *
+     * On by default. Chunked bodies are sent while they are generated.
+     * Otherwise the client buffers the whole body to find its length, for
+     * servers or proxies not accepting chunked requests.
+     *
+     * @param chunked whether request bodies are chunked.
+     */
+    public void setChunked(boolean chunked) {
+        this.chunked = chunked;
+        client.property("jersey.config.client.request.entity.processing",
+                chunked ? "CHUNKED" : "BUFFERED");
+    }
+
+    /**
+     * Returns whether loaded items are printed to the console.
+     *
+     * @return whether loaded items are printed.
+     */
+    public boolean isPrintItems() {
+        return printItems;
+    }
+
+    /**
+     * Sets whether loaded items are printed to the console.
+     *
+     * Off by default, as printing slows down loading large lists.
+     *
+     * @param printItems whether loaded items are printed.
+     */
+    public void setPrintItems(boolean printItems) {
+        this.printItems = printItems;
+    }
+
+    /**
+     * Returns milliseconds before an asynchronous call fails with
+     * a timeout.
+     *
+     * @return timeout in milliseconds.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets milliseconds before an asynchronous call fails with a timeout.
+     *
+     * @param timeout timeout in milliseconds.
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
     }
 
     /**
@@ -207,4 +1060,175 @@ public class ServerConnection {
     public void setTargetList(String targetList) {
         this.targetList = targetList;
     }
+
+    /**
+     * State of a list being loaded page by page.
+     */
+    private class PagedLoad {
+
+        /**
+         * Name of the list.
+         */
+        private final String listName;
+
+        /**
+         * Whether the items are appended to current shop list.
+         */
+        private final boolean combine;
+
+        /**
+         * Maximum number of items on a page.
+         */
+        private final int pageSize;
+
+        /**
+         * Runs the adding of the items.
+         */
+        private final Executor executor;
+
+        /**
+         * Completed when every page is loaded, cancelled to stop loading.
+         */
+        private final CompletableFuture<Boolean> result =
+                new CompletableFuture<>();
+
+        /**
+         * Map from product to amount of the loaded items.
+         */
+        private final Map<String, Integer> items = new LinkedHashMap<>();
+
+        /**
+         * Entity tag of the first page, null if unknown.
+         */
+        private EntityTag tag;
+
+        /**
+         * Whether every page so far was read from the same list version.
+         */
+        private boolean sameVersion = true;
+
+        /**
+         * Request of the page in flight.
+         */
+        private volatile CompletableFuture<ListPage> request;
+
+        /**
+         * Constructor.
+         *
+         * @param listName name of the list.
+         * @param combine whether the items are appended to current shop
+         *                list.
+         * @param pageSize maximum number of items on a page.
+         * @param executor runs the adding of the items.
+         */
+        PagedLoad(String listName, boolean combine, int pageSize,
+                  Executor executor) {
+            this.listName = listName;
+            this.combine = combine;
+            this.pageSize = pageSize;
+            this.executor = executor;
+            result.whenComplete((loaded, error) -> {
+                CompletableFuture<ListPage> current = request;
+
+                if (current != null) {
+                    current.cancel(true);
+                }
+            });
+        }
+
+        /**
+         * Requests a page.
+         *
+         * @param after cursor of the previous page, null for the first page.
+         */
+        void request(String after) {
+            CompletableFuture<ListPage> page =
+                    loadPageAsync(listName, after, pageSize, null);
+            request = page;
+
+            /* Cancelled before the request was stored. */
+            if (result.isDone()) {
+                page.cancel(true);
+            }
+
+            page.whenComplete((loaded, error) -> executor.execute(
+                    () -> received(after, loaded, error)));
+        }
+
+        /**
+         * Adds the items of a received page and requests the next one.
+         *
+         * @param after cursor the page was requested with.
+         * @param page received page, null if loading failed.
+         * @param error error of the request, null if there is none.
+         */
+        private void received(String after, ListPage page, Throwable error) {
+
+            if (result.isDone()) {
+                return;
+            }
+
+            if (error != null || page == null) {
+                result.complete(false);
+                return;
+            }
+
+            if (after == null) {
+                tag = page.getTag();
+
+                if (!combine) {
+                    list.clearList();
+                }
+            } else if (tag == null || !tag.equals(page.getTag())) {
+                sameVersion = false;
+            }
+
+            for (ShopItem item : page.getItems()) {
+                items.merge(item.getName(), item.getQuantity(),
+                        Integer::sum);
+                list.addItem(item);
+            }
+
+            if (page.hasNext()) {
+                request(page.getNext());
+                return;
+            }
+
+            if (sameVersion && tag != null) {
+                copies.put(listName, new RemoteCopy(tag, items));
+            } else {
+                copies.remove(listName);
+            }
+
+            result.complete(true);
+        }
+    }
+
+    /**
+     * Items of a list loaded from the server and the entity tag of the
+     * response.
+     */
+    private static class RemoteCopy {
+
+        /**
+         * Entity tag of the response.
+         */
+        private final EntityTag tag;
+
+        /**
+         * Map from product to amount as stored on the server.
+         */
+        private final Map<String, Integer> items;
+
+        /**
+         * Constructor.
+         *
+         * @param tag entity tag of the response.
+         * @param items map from product to amount.
+         */
+        RemoteCopy(EntityTag tag, Map<String, Integer> items) {
+            this.tag = tag;
+            this.items = items;
+        }
+    }
 }
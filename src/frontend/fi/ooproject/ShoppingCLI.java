@@ -95,18 +95,9 @@ public class ShoppingCLI {
                     System.out.println(messages.getString("command11"));
                 } else if (input.matches("^(remove [^\\s]+)$")) {
                     parts = input.split(" ");
-                    ShopItem tmp = null;
-                    boolean found = false;
-
-                    for (int i = 0; i < shoplist.size(); i++) {
-                        if (shoplist.getItem(i).getName().equals(parts[1])) {
-                            tmp = shoplist.getItem(i);
-                            found = true;
-                            break;
-                        }
-                    }
+                    ShopItem tmp = shoplist.findItem(parts[1]);
 
-                    if (found) {
+                    if (tmp != null) {
                         shoplist.removeItem(tmp);
                         System.out.println(tmp.getName() + " "
                                 + messages.getString("removed"));
@@ -164,7 +155,7 @@ public class ShoppingCLI {
                 } else if (input.matches("^(server save [^\\s]+)$")) {
                     parts = input.split(" ");
 
-                    if (connection.saveList(parts[2])) {
+                    if (connection.saveChanges(parts[2])) {
                         System.out.println(messages.getString("servSaveComp"));
                     } else {
                         System.out.println(messages.getString("servSaveFail"));
@@ -200,9 +191,8 @@ public class ShoppingCLI {
                                     listParts[i] = listParts[i].substring(1);
                                 }
 
-                                String[] itemParts = listParts[i].split(" ");
-                                shoplist.addItem(new ShopItem(itemParts[1],
-                                        Integer.parseInt(itemParts[0])));
+                                shoplist.addItem(
+                                        ItemLineParser.parse(listParts[i]));
                             }
                         }
                     } catch (NumberFormatException
@@ -217,9 +207,9 @@ public class ShoppingCLI {
             System.out.println();
             System.out.println(messages.getString("listState"));
 
-            for (int i = 0; i < shoplist.size(); i++) {
-                System.out.println("  " + shoplist.getItem(i).getQuantity()
-                        + " " + shoplist.getItem(i).getName());
+            for (ShopItem item : shoplist) {
+                System.out.println("  " + item.getQuantity()
+                        + " " + item.getName());
             }
 
             System.out.println();
@@ -12,8 +12,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Graphical user interface for Shopping list application.
@@ -29,6 +34,11 @@ public class ShoppingGUI extends JFrame {
      */
     private ShoppingList shoplist;
 
+    /**
+     * Number of items loaded at a time from remote storage.
+     */
+    private static final int PAGE_SIZE = 500;
+
     /**
      * Manages uploading files to Dropbox.
      */
@@ -39,6 +49,11 @@ public class ShoppingGUI extends JFrame {
      */
     private ServerConnection connection;
 
+    /**
+     * Sends remote saves to backend in the background.
+     */
+    private SyncOutbox outbox;
+
     /**
      * Object used for opening file manager.
      */
@@ -49,6 +64,11 @@ public class ShoppingGUI extends JFrame {
      */
     private JTable table;
 
+    /**
+     * Model showing the shop list in the table.
+     */
+    private ShopTableModel tableModel;
+
     /**
      * Label for displaying messages to user.
      */
@@ -64,6 +84,13 @@ public class ShoppingGUI extends JFrame {
      */
     private ResourceBundle messages;
 
+    /**
+     * Remote load in progress, null if there is none.
+     *
+     * Accessed only on the event dispatch thread.
+     */
+    private CompletableFuture<Boolean> remoteLoad;
+
     /**
      * Constructor.
      *
@@ -75,9 +102,12 @@ public class ShoppingGUI extends JFrame {
         shoplist = new ShoppingList();
         fileChooser = new JFileChooser();
         connection = new ServerConnection(shoplist);
+        outbox = new SyncOutbox(connection);
         msgLabel = new JLabel(" ");
         selectLabel = new JLabel(" ");
         messages = ResourceBundle.getBundle("MessagesBundle", Locale.ENGLISH);
+        outbox.setRejectListener((listName) -> SwingUtilities.invokeLater(
+                () -> showRejected(listName)));
         setTitle("Shopping List");
         setSize(800, 400);
         setLayout(new BorderLayout());
@@ -174,7 +204,7 @@ public class ShoppingGUI extends JFrame {
      */
     public void createTable() {
 
-        ShopTableModel tableModel = new ShopTableModel(shoplist);
+        tableModel = new ShopTableModel(shoplist);
         table = new JTable(tableModel);
         table.setPreferredScrollableViewportSize(new Dimension(300, 80));
         table.setFillsViewportHeight(true);
@@ -225,10 +255,16 @@ public class ShoppingGUI extends JFrame {
         delRowButton.addActionListener((e) -> {
 
             try {
-                int index = table.getSelectedRow();
+                Set<ShopItem> selected =
+                        Collections.newSetFromMap(new IdentityHashMap<>());
 
-                if (index >= 0) {
-                    shoplist.removeItem(shoplist.getItem(index));
+                for (int index : table.getSelectedRows()) {
+                    selected.add(shoplist.getItem(index));
+                }
+
+                /* Every selected row is removed in a single pass. */
+                if (shoplist.removeIf(selected::contains)) {
+                    tableModel.fireTableDataChanged();
                 }
 
                 repaint();
@@ -384,6 +420,11 @@ public class ShoppingGUI extends JFrame {
 
     /**
      *  Opens dialog for saving current shop list to remote storage.
+     *
+     *  The list is queued in the {@link SyncOutbox outbox}, which sends it
+     *  to the server in the background and retries while the server can't
+     *  be reached. Saves the server rejects are reported with
+     *  {@link #showRejected(String)}.
      */
     public void openRemoteSave() {
 
@@ -414,9 +455,10 @@ public class ShoppingGUI extends JFrame {
                 listName = inputField.getText();
             }
 
-            if (connection.saveList(listName)) {
+            /* Saved locally at once, the outbox sends it when it can. */
+            if (outbox.save(listName, shoplist)) {
                 timer.start();
-                msgLabel.setText(messages.getString("servSaveComp"));
+                msgLabel.setText(messages.getString("servSaveQueued"));
             } else {
                 timer.start();
                 msgLabel.setText(messages.getString("servSaveFail"));
@@ -424,6 +466,20 @@ public class ShoppingGUI extends JFrame {
         }
     }
 
+    /**
+     * Tells the user that the outbox dropped a remote save.
+     *
+     * @param listName name of the list that wasn't saved.
+     */
+    private void showRejected(String listName) {
+
+        Timer timer = new Timer(5000, (e) -> msgLabel.setText(" "));
+        timer.setRepeats(false);
+        timer.start();
+        msgLabel.setText(messages.getString("servSaveRejected") + " "
+                + listName);
+    }
+
     /**
      * Opens dialog for loading/combining shop list from remote storage.
      *
@@ -432,7 +488,24 @@ public class ShoppingGUI extends JFrame {
      */
     public void openRemoteLoad(boolean combine) {
 
-        String[] names = connection.getListNames();
+        msgLabel.setText(messages.getString("servListing"));
+        connection.getListNamesAsync().whenComplete(
+                (names, error) -> SwingUtilities.invokeLater(() -> {
+                    msgLabel.setText(" ");
+                    showRemoteLoad(error == null ? names : new String[0],
+                            combine);
+                }));
+    }
+
+    /**
+     * Shows dialog for selecting the list loaded from remote storage.
+     *
+     * @param names names of the lists in remote storage.
+     * @param combine whether the loaded content is appended to current shop
+     *                list or overwritten.
+     */
+    private void showRemoteLoad(String[] names, boolean combine) {
+
         String title = "";
         JPanel mainPanel = new JPanel();
         JPanel namesPanel = new JPanel();
@@ -483,18 +556,60 @@ public class ShoppingGUI extends JFrame {
                 JOptionPane.OK_CANCEL_OPTION);
 
         if (result == JOptionPane.OK_OPTION) {
-            Timer timer = new Timer(2000, (e) -> msgLabel.setText(" "));
-            timer.setRepeats(false);
+            loadRemoteList(connection.getTargetList(), combine);
+        }
+    }
 
-            if (connection.loadList(connection.getTargetList(), combine)) {
-                timer.start();
-                repaint();
-                msgLabel.setText(messages.getString("servLoadComp"));
-            } else {
-                timer.start();
-                msgLabel.setText(messages.getString("servLoadFail"));
-            }
+    /**
+     * Loads shop list from remote storage without blocking the user
+     * interface.
+     *
+     * A list loaded before is only revalidated. Otherwise pages of the list
+     * are requested one after another and each page is shown as soon as it
+     * arrives. The connection keeps a copy of a list loaded this way, so
+     * loading it again revalidates the copy and saving it sends only the
+     * changes. Starting a new load cancels the one in progress.
+     *
+     * @param listName name of the loaded list.
+     * @param combine whether the loaded content is appended to current shop
+     *                list or overwritten.
+     */
+    private void loadRemoteList(String listName, boolean combine) {
+
+        Timer timer = new Timer(2000, (e) -> msgLabel.setText(" "));
+        timer.setRepeats(false);
+        CompletableFuture<Boolean> load;
+
+        if (remoteLoad != null) {
+            remoteLoad.cancel(true);
         }
+
+        if (connection.hasCopy(listName)) {
+            load = connection.loadListAsync(listName, combine,
+                    SwingUtilities::invokeLater);
+        } else {
+            /* Each page is shown as soon as its items are added. */
+            load = connection.loadPagesAsync(listName, combine, PAGE_SIZE,
+                    (task) -> SwingUtilities.invokeLater(() -> {
+                        task.run();
+                        tableModel.fireTableDataChanged();
+                    }));
+        }
+
+        remoteLoad = load;
+        msgLabel.setText(messages.getString("servLoading"));
+        load.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            /* A newer load owns the label. */
+            if (remoteLoad != load) {
+                return;
+            }
+
+            remoteLoad = null;
+            tableModel.fireTableDataChanged();
+            timer.start();
+            msgLabel.setText(messages.getString(
+                    error == null && loaded ? "servLoadComp" : "servLoadFail"));
+        }));
     }
 
     /**
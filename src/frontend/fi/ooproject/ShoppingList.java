@@ -1,17 +1,29 @@
 package fi.ooproject;
 
-import fi.ooproject.utils.MyLinkedList;
-import fi.ooproject.utils.Tools;
+import fi.ooproject.utils.MyArrayList;
+import fi.ooproject.utils.MyList;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Shopping list logic.
@@ -23,19 +35,45 @@ import java.util.List;
  * @version 2016.1109
  * @since 1.8
  */
-public class ShoppingList {
+public class ShoppingList implements Iterable<ShopItem> {
 
     /**
-     * Linked list to store {@link fi.ooproject.ShopItem shop items}.
+     * Read buffer size in bytes used when none is given.
      */
-    private MyLinkedList<ShopItem> list;
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of read items between {@link LoadProgress progress updates}.
+     */
+    private static final int PROGRESS_INTERVAL = 10000;
+
+    /**
+     * List to store {@link fi.ooproject.ShopItem shop items}.
+     */
+    private MyList<ShopItem> list;
+
+    /**
+     * Index from item name to the item stored in {@link #list}.
+     *
+     * Kept in sync by every method modifying the list, so finding an item
+     * by name doesn't require walking the list.
+     */
+    private Map<String, ShopItem> index;
+
+    /**
+     * Journal recording edits of the list, null if edits aren't journaled.
+     */
+    private ListJournal journal;
 
     /**
      * Returns shop list object.
      *
+     * Items added, removed or renamed directly through the returned object
+     * bypass the name index, use methods of this class instead.
+     *
      * @return shop list object.
      */
-    public MyLinkedList<ShopItem> getList() {
+    public MyList<ShopItem> getList() {
         return list;
     }
 
@@ -50,9 +88,29 @@ public class ShoppingList {
 
     /**
      * Constructor.
+     *
+     * Stores items in an {@link fi.ooproject.utils.MyArrayList array list},
+     * so {@link #getItem(int)} is constant time.
      */
     public ShoppingList() {
-        list = new MyLinkedList<>();
+        this(new MyArrayList<ShopItem>());
+    }
+
+    /**
+     * Constructor.
+     *
+     * Stores items in given list implementation, for example a
+     * {@link fi.ooproject.utils.MyLinkedList linked list}.
+     *
+     * @param list empty list used to store shop items.
+     */
+    public ShoppingList(MyList<ShopItem> list) {
+        this.list = list;
+        index = new HashMap<>();
+
+        for (ShopItem item : list) {
+            index.putIfAbsent(item.getName(), item);
+        }
     }
 
     /**
@@ -66,24 +124,17 @@ public class ShoppingList {
      */
     public void addItem(ShopItem item) {
 
-        if (list.size() <= 0) {
-            list.add(item);
-        } else {
-
-            boolean already = false;
+        ShopItem already = index.get(item.getName());
 
-            for (int i = 0; i < list.size(); i++) {
-                ShopItem tmp = (ShopItem) list.get(i);
-
-                if (tmp.getName().equals(item.getName())) {
-                    tmp.setQuantity(tmp.getQuantity() + item.getQuantity());
-                    already = true;
-                }
-            }
+        if (already != null) {
+            already.setQuantity(already.getQuantity() + item.getQuantity());
+        } else {
+            list.add(item);
+            index.put(item.getName(), item);
+        }
 
-            if (!already) {
-                list.add(item);
-            }
+        if (journal != null) {
+            journal.recordAdd(item.getName(), item.getQuantity());
         }
     }
 
@@ -95,27 +146,74 @@ public class ShoppingList {
     public void addItemList(ShopItem[] items) {
 
         for (ShopItem item : items) {
+            addItem(item);
+        }
+    }
 
-            if (list.size() <= 0) {
-                list.add(item);
-            } else {
+    /**
+     * Returns the item with given name or null if there is none.
+     *
+     * @param name name of the queried item.
+     * @return item with given name or null if there is none.
+     */
+    public ShopItem findItem(String name) {
+        return index.get(name);
+    }
 
-                boolean already = false;
+    /**
+     * Sets quantity of an item in the list.
+     *
+     * @param item item in the list.
+     * @param quantity new quantity for the item.
+     */
+    public void setQuantity(ShopItem item, int quantity) {
 
-                for (int i = 0; i < list.size(); i++) {
-                    ShopItem tmp = (ShopItem) list.get(i);
+        item.setQuantity(quantity);
 
-                    if (tmp.getName().equals(item.getName())) {
-                        tmp.setQuantity(tmp.getQuantity() + item.getQuantity());
-                        already = true;
-                    }
-                }
+        if (journal != null) {
+            journal.recordSetQuantity(item.getName(), quantity);
+        }
+    }
 
-                if (!already) {
-                    list.add(item);
-                }
+    /**
+     * Renames an item in the list.
+     *
+     * If the list already has another item with the new name, quantity of
+     * the renamed item is added to that item and the renamed item is
+     * removed, same as when {@link #addItem(ShopItem) adding} an item.
+     *
+     * @param item item to be renamed.
+     * @param name new name for the item.
+     * @return whether the renamed item was merged to another item.
+     */
+    public boolean renameItem(ShopItem item, String name) {
+
+        if (name.equals(item.getName())) {
+            return false;
+        }
+
+        ShopItem already = index.get(name);
+        boolean merged = (already != null);
+        String oldName = item.getName();
+
+        if (merged) {
+            if (!unlink(item)) {
+                return false;
             }
+
+            already.setQuantity(already.getQuantity() + item.getQuantity());
+        } else {
+            index.remove(oldName, item);
+            item.setName(name);
+            index.put(name, item);
+        }
+
+        /* Recorded after renaming, journal may compact the list. */
+        if (journal != null) {
+            journal.recordRename(oldName, name);
         }
+
+        return merged;
     }
 
     /**
@@ -128,6 +226,34 @@ public class ShoppingList {
         return (ShopItem) list.get(index);
     }
 
+    /**
+     * Returns an iterator over the items in the list.
+     *
+     * @return fail-fast iterator over the items in the list.
+     */
+    @Override
+    public Iterator<ShopItem> iterator() {
+        return list.iterator();
+    }
+
+    /**
+     * Returns a sequential stream of the items in the list.
+     *
+     * @return sequential stream of the items in the list.
+     */
+    public Stream<ShopItem> stream() {
+        return StreamSupport.stream(list.spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the items in the list.
+     *
+     * @return parallel stream of the items in the list.
+     */
+    public Stream<ShopItem> parallelStream() {
+        return StreamSupport.stream(list.spliterator(), true);
+    }
+
     /**
      * Removes item from the list and returns whether the removal succeeded.
      *
@@ -136,62 +262,387 @@ public class ShoppingList {
      */
     public boolean removeItem(ShopItem item) {
 
-        if (list.remove(item)) {
+        if (unlink(item)) {
+            if (journal != null) {
+                journal.recordRemove(item.getName());
+            }
+
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Removes item from the list and the name index without journaling.
+     *
+     * @param item item to be removed.
+     * @return whether the removal succeeded.
+     */
+    private boolean unlink(ShopItem item) {
+
+        if (list.remove(item)) {
+            index.remove(item.getName(), item);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes all items satisfying given predicate from the list.
+     *
+     * Removes the items during a single pass over the list, for example
+     * to clear every purchased item at once.
+     *
+     * @param filter predicate returning true for items to be removed.
+     * @return whether any items were removed.
+     */
+    public boolean removeIf(Predicate<? super ShopItem> filter) {
+
+        List<String> removed = new ArrayList<>();
+        boolean any = list.removeIf((item) -> {
+            if (filter.test(item)) {
+                index.remove(item.getName(), item);
+                removed.add(item.getName());
+                return true;
+            }
+
+            return false;
+        });
+
+        /* Recorded after the pass, journal may walk the list to compact. */
+        if (journal != null) {
+            for (String name : removed) {
+                journal.recordRemove(name);
+            }
+        }
+
+        return any;
+    }
+
     /**
      * Clears the list from saved items.
      */
     public void clearList() {
         list.clear();
+        index.clear();
+
+        if (journal != null) {
+            journal.recordClear();
+        }
+    }
+
+    /**
+     * Stops journaling edits of the list.
+     *
+     * Edits made so far are kept in the journal files.
+     */
+    public void closeJournal() {
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            journal = null;
+        }
     }
 
     /**
      * Loads list from file.
      *
      * Reads a file at given path and tries to convert it's contents to shop
-     * list.
+     * list. Files with {@link ListFormat#BINARY binary} extension are read
+     * as binary, others as text using default charset and buffer size.
      *
      * @param src absolute path for reading file.
      * @param combine whether the content of read file is appended
      *                to current shop list or overwritten.
      * @return whether reading the file succeeded.
+     * @see #loadFile(String, boolean, Charset, int, LoadProgress)
      */
     public boolean loadFile(String src, boolean combine) {
+        return loadFile(src, combine, ListFormat.of(src));
+    }
+
+    /**
+     * Loads list from file in given format.
+     *
+     * @param src absolute path for reading file.
+     * @param combine whether the content of read file is appended
+     *                to current shop list or overwritten.
+     * @param format format of the file.
+     * @return whether reading the file succeeded.
+     */
+    public boolean loadFile(String src, boolean combine, ListFormat format) {
+
+        if (format == ListFormat.BINARY) {
+            return loadBinaryFile(src, combine);
+        } else if (format == ListFormat.JOURNAL) {
+            return loadJournalFile(src, combine);
+        }
+
+        return loadFile(src, combine, Charset.defaultCharset(),
+                DEFAULT_BUFFER_SIZE, null);
+    }
+
+    /**
+     * Loads list from file line by line.
+     *
+     * Reads a file at given path through a buffered channel, so the file
+     * is never held in memory as a whole. Lines are parsed straight from
+     * the read buffer, so only item names are copied. Each item is merged
+     * into the shop list as soon as its line is read, so memory use
+     * doesn't grow with the file. The file is opened before the list is
+     * cleared, but a read failing midway leaves the items read before the
+     * failure in the list.
+     *
+     * @param src absolute path for reading file.
+     * @param combine whether the content of read file is appended
+     *                to current shop list or overwritten.
+     * @param charset charset used to decode the file.
+     * @param bufferSize size of the read buffer in bytes.
+     * @param progress receives progress updates, may be null.
+     * @return whether reading the file succeeded.
+     */
+    public boolean loadFile(String src, boolean combine, Charset charset,
+                            int bufferSize, LoadProgress progress) {
+
+        try {
+
+            Path path = new File(src).toPath();
+
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.READ);
+                 Reader reader = Channels.newReader(channel,
+                         charset.newDecoder(), bufferSize)) {
+
+                if (!combine) {
+                    clearList();
+                }
+
+                long total = channel.size();
+                long items = 0;
+                CharBuffer buffer = CharBuffer.allocate(bufferSize);
+                boolean skipLineFeed = false;
+                boolean eof = false;
+
+                while (!eof) {
+                    eof = (reader.read(buffer) < 0);
+                    buffer.flip();
+                    int lineStart = 0;
+                    int end = buffer.limit();
+
+                    for (int i = 0; i < end; i++) {
+                        char c = buffer.get(i);
+
+                        if (skipLineFeed) {
+                            skipLineFeed = false;
+
+                            if (c == '\n') {
+                                lineStart = i + 1;
+                                continue;
+                            }
+                        }
+
+                        if (c == '\n' || c == '\r') {
+                            skipLineFeed = (c == '\r');
+
+                            if (parseLine(buffer, lineStart, i)) {
+                                items++;
+
+                                if (progress != null
+                                        && items % PROGRESS_INTERVAL == 0) {
+                                    progress.update(channel.position(), total,
+                                            items);
+                                }
+                            }
+
+                            lineStart = i + 1;
+                        }
+                    }
+
+                    if (eof) {
+                        if (lineStart < end
+                                && parseLine(buffer, lineStart, end)) {
+                            items++;
+                        }
+                    } else if (lineStart == 0 && end == buffer.capacity()) {
+                        /* Line longer than the buffer, grow the buffer. */
+                        CharBuffer larger =
+                                CharBuffer.allocate(buffer.capacity() * 2);
+                        larger.put(buffer);
+                        buffer = larger;
+                    } else {
+                        buffer.position(lineStart);
+                        buffer.compact();
+                    }
+                }
+
+                if (progress != null) {
+                    progress.update(total, total, items);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("File not found");
+            e.printStackTrace();
+            return false;
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid path, use for example:" +
+                    " C:/User/You/file.txt");
+            e.printStackTrace();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Loads list from file using all available processors.
+     *
+     * Meant for very large files. Results are identical to
+     * {@link #loadFile(String, boolean)}.
+     *
+     * @param src absolute path for reading file.
+     * @param combine whether the content of read file is appended
+     *                to current shop list or overwritten.
+     * @return whether reading the file succeeded.
+     * @see ParallelListLoader
+     */
+    public boolean loadFileParallel(String src, boolean combine) {
+        return new ParallelListLoader().load(this, src, combine);
+    }
+
+    /**
+     * Converts a line in given range of a buffer to an item.
+     *
+     * Empty lines are skipped. Invalid lines are reported and skipped.
+     *
+     * @param chars buffer containing the line.
+     * @param start index of the first character of the line.
+     * @param end index after the last character of the line.
+     * @return item read from the line or null if line was skipped.
+     */
+    static ShopItem parseItem(CharBuffer chars, int start, int end) {
 
         try {
+            return ItemLineParser.parse(chars, start, end);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid file");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Converts a line in given range of a buffer to an item and adds it
+     * to the list.
+     *
+     * @param chars buffer containing the line.
+     * @param start index of the first character of the line.
+     * @param end index after the last character of the line.
+     * @return whether an item was added.
+     */
+    private boolean parseLine(CharBuffer chars, int start, int end) {
+
+        ShopItem item = parseItem(chars, start, end);
+
+        if (item != null) {
+            addItem(item);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Loads list from binary file.
+     *
+     * The shop list is modified only after the checksum of the file has
+     * been verified.
+     *
+     * @param src absolute path for reading file.
+     * @param combine whether the content of read file is appended
+     *                to current shop list or overwritten.
+     * @return whether reading the file succeeded.
+     * @see BinaryListFile
+     */
+    private boolean loadBinaryFile(String src, boolean combine) {
+
+        try {
+
+            List<ShopItem> items = BinaryListFile.read(new File(src).toPath());
 
             if (!combine) {
                 clearList();
             }
 
-            Path path = new File(src).toPath();
-            List<String> lines = Files.readAllLines(path,
-                    Charset.defaultCharset());
+            for (ShopItem item : items) {
+                addItem(item);
+            }
+        } catch (NoSuchFileException e) {
+            System.out.println("File not found");
+            e.printStackTrace();
+            return false;
+        } catch (IOException e) {
+            System.out.println("Invalid file");
+            e.printStackTrace();
+            return false;
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid path, use for example:" +
+                    " C:/User/You/file.txt");
+            e.printStackTrace();
+            return false;
+        }
 
-            for (int i = 0; i < lines.size(); i++) {
+        return true;
+    }
 
-                if (lines.get(i).length() > 0
-                        && !(Tools.isEmpty(lines.get(i)))) {
+    /**
+     * Loads list from journal and keeps journaling further edits to it.
+     *
+     * Replays the snapshot and the log of the journal. When combining, the
+     * journal is replayed into a separate list, its items are added to
+     * this list and the combined list is written as a new snapshot right
+     * away.
+     *
+     * @param src absolute path of the journal snapshot.
+     * @param combine whether the content of read journal is appended
+     *                to current shop list or overwritten.
+     * @return whether reading the journal succeeded.
+     * @see ListJournal
+     */
+    private boolean loadJournalFile(String src, boolean combine) {
 
-                    String[] parts = lines.get(i).split(" ");
+        try {
 
-                    try {
-                        addItem(new ShopItem(parts[1],
-                                Integer.parseInt(parts[0])));
-                    } catch (NumberFormatException
-                            | ArrayIndexOutOfBoundsException e) {
-                        System.out.println("Invalid file");
-                        e.printStackTrace();
-                    }
+            Path path = new File(src).toPath();
+            closeJournal();
+
+            if (combine) {
+                /* Log records only apply to the list they were made on. */
+                ShoppingList replayed = new ShoppingList();
+                new ListJournal(replayed, path).replay();
+
+                for (ShopItem item : replayed) {
+                    addItem(item);
                 }
+
+                ListJournal combined = new ListJournal(this, path);
+                combined.compact();
+                journal = combined;
+            } else {
+                clearList();
+                ListJournal loaded = new ListJournal(this, path);
+                loaded.replay();
+                loaded.open();
+                journal = loaded;
             }
         } catch (IOException e) {
-            System.out.println("File not found");
+            System.out.println("Invalid file");
             e.printStackTrace();
             return false;
         } catch (InvalidPathException e) {
@@ -205,30 +656,57 @@ public class ShoppingList {
     }
 
     /**
-     * Writes current state of shop list to a text file.
+     * Writes current state of shop list to a file.
+     *
+     * Files with {@link ListFormat#BINARY binary} extension are written as
+     * binary, others as text.
      *
      * @param dest absolute path for writing file.
      * @return whether writing to the file succeeded.
      */
     public boolean saveFile(String dest) {
+        return saveFile(dest, ListFormat.of(dest));
+    }
+
+    /**
+     * Writes current state of shop list to a file in given format.
+     *
+     * Adds the extension of the format to the path if it's missing.
+     * Saving in {@link ListFormat#JOURNAL journal} format keeps journaling
+     * further edits, so saving again to the same journal writes nothing
+     * new.
+     *
+     * @param dest absolute path for writing file.
+     * @param format format of the file.
+     * @return whether writing to the file succeeded.
+     */
+    public boolean saveFile(String dest, ListFormat format) {
 
         try {
 
-            List<String> lines = new ArrayList<>();
             String destination;
 
-            for (int i = 0; i < list.size(); i++) {
-                lines.add(list.get(i).toString());
-            }
-
-            if (dest.matches("(.*\\.txt)$")) {
+            if (dest.toLowerCase().endsWith(format.getExtension())) {
                 destination = dest;
             } else {
-                destination = dest + ".txt";
+                destination = dest + format.getExtension();
             }
 
             Path path = Paths.get(destination);
-            Files.write(path, lines, Charset.forName("UTF-8"));
+
+            if (format == ListFormat.BINARY) {
+                BinaryListFile.write(path, list, list.size());
+            } else if (format == ListFormat.JOURNAL) {
+                saveJournalFile(path);
+            } else {
+                List<String> lines = new ArrayList<>();
+
+                for (ShopItem item : list) {
+                    lines.add(item.toString());
+                }
+
+                Files.write(path, lines, Charset.forName("UTF-8"));
+            }
         } catch (IOException e) {
             System.out.println("Save failed");
             e.printStackTrace();
@@ -237,4 +715,25 @@ public class ShoppingList {
 
         return true;
     }
+
+    /**
+     * Starts journaling edits to given path unless already doing so.
+     *
+     * Writes current state of the list as the snapshot of a new journal.
+     *
+     * @param path path of the journal snapshot.
+     * @throws IOException if writing the journal fails.
+     */
+    private void saveJournalFile(Path path) throws IOException {
+
+        if (journal != null && journal.getSnapshot().toAbsolutePath()
+                .equals(path.toAbsolutePath())) {
+            return;
+        }
+
+        closeJournal();
+        ListJournal created = new ListJournal(this, path);
+        created.compact();
+        journal = created;
+    }
 }
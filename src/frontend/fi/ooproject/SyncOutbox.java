@@ -0,0 +1,354 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Persistent outbox of remote saves, sent to the server in the background.
+ *
+ * Saving a list only writes its items to a local file in
+ * {@link BinaryListFile binary} format and returns. A background thread
+ * then sends the pending lists to the server, only the changes if the list
+ * was loaded from the server before. There is one file per list,
+ * so saving a list again before it was sent replaces the pending save and
+ * a burst of saves reaches the server as a single write. Pending saves
+ * survive restarts of the application.
+ *
+ * Sending starts shortly after a save, so saves made close together are
+ * sent together. If a save fails on the way, for example because the
+ * server can't be reached or answers with an error, the outbox keeps it
+ * and retries with exponentially growing delays, up to a maximum delay.
+ * Only a save the server read and rejected, or a file that can't be
+ * read, would fail again on every retry, so they are dropped and
+ * reported to the rejection listener.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class SyncOutbox {
+
+    /**
+     * Extension of pending save files.
+     */
+    private static final String EXTENSION = ".slb";
+
+    /**
+     * Milliseconds between a save and sending it.
+     */
+    private static final long FLUSH_DELAY = 1000;
+
+    /**
+     * Milliseconds before the first retry.
+     */
+    private static final long MIN_BACKOFF = 2000;
+
+    /**
+     * Maximum milliseconds between retries.
+     */
+    private static final long MAX_BACKOFF = 5 * 60 * 1000;
+
+    /**
+     * Sends the saves to the server.
+     */
+    private Sender sender;
+
+    /**
+     * Receives names of lists whose save was dropped, null if there is
+     * none.
+     */
+    private volatile Consumer<String> rejectListener;
+
+    /**
+     * Directory of the pending save files.
+     */
+    private Path dir;
+
+    /**
+     * Map from name of a pending list to the number of its latest save.
+     */
+    private Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Number given to the next save.
+     */
+    private long saves = 0;
+
+    /**
+     * Number of failed flushes in a row.
+     */
+    private int failures = 0;
+
+    /**
+     * Next flush, null if none is scheduled.
+     */
+    private ScheduledFuture<?> scheduled;
+
+    /**
+     * Thread sending the saves.
+     */
+    private ScheduledExecutorService worker =
+            Executors.newSingleThreadScheduledExecutor((r) -> {
+                Thread thread = new Thread(r, "sync-outbox");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Constructor.
+     *
+     * Picks up saves left pending by an earlier run and starts sending
+     * them.
+     *
+     * @param sender sends the saves to the server.
+     * @param dir directory of the pending save files.
+     */
+    public SyncOutbox(Sender sender, Path dir) {
+        this.sender = sender;
+        this.dir = dir;
+
+        try {
+            Files.createDirectories(dir);
+
+            try (DirectoryStream<Path> files =
+                         Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    pending.put(URLDecoder.decode(fileName.substring(0,
+                            fileName.length() - EXTENSION.length()),
+                            "UTF-8"), saves++);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        if (!pending.isEmpty()) {
+            requestFlush(0);
+        }
+    }
+
+    /**
+     * Constructor using directory ".shoplist-outbox" in the user's home
+     * directory.
+     *
+     * @param connection connection sending the saves.
+     */
+    public SyncOutbox(ServerConnection connection) {
+        this(connection::sendChanges, Paths.get(
+                System.getProperty("user.home"), ".shoplist-outbox"));
+    }
+
+    /**
+     * Queues the current items of a list to be saved to the server.
+     *
+     * Replaces any save of the same list that hasn't been sent yet.
+     *
+     * @param listName name of the list on the server.
+     * @param list saved list.
+     * @return whether the save was stored locally.
+     */
+    public boolean save(String listName, ShoppingList list) {
+
+        try {
+            Path file = file(listName);
+            Path temp = Paths.get(file.toString() + ".tmp");
+            BinaryListFile.write(temp, list, list.size());
+
+            synchronized (this) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                pending.put(listName, saves++);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        requestFlush(FLUSH_DELAY);
+        return true;
+    }
+
+    /**
+     * Returns the number of lists waiting to be sent.
+     *
+     * @return number of pending lists.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Sets the listener told about saves that were dropped, because the
+     * server rejected them or their file couldn't be read.
+     *
+     * The listener is called on the sending thread.
+     *
+     * @param rejectListener receives the name of the list, null for none.
+     */
+    public void setRejectListener(Consumer<String> rejectListener) {
+        this.rejectListener = rejectListener;
+    }
+
+    /**
+     * Stops sending. Pending saves stay on disk for the next run.
+     */
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Schedules a flush unless one is already scheduled.
+     *
+     * @param delay milliseconds before the flush.
+     */
+    private synchronized void requestFlush(long delay) {
+
+        if (scheduled == null) {
+            scheduled = worker.schedule(this::flush, delay,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends every pending list to the server.
+     *
+     * A list saved again while it was being sent stays pending. Saves
+     * that are rejected or can't be read are dropped. Schedules a retry
+     * with backoff if a save failed on the way.
+     */
+    private void flush() {
+
+        synchronized (this) {
+            scheduled = null;
+        }
+
+        boolean failed = false;
+        List<String> names = new ArrayList<>(pending.keySet());
+
+        for (String name : names) {
+            Long save = pending.get(name);
+
+            if (save == null) {
+                continue;
+            }
+
+            List<ShopItem> items;
+
+            try {
+                items = BinaryListFile.read(file(name));
+            } catch (IOException | RuntimeException e) {
+                /* An unreadable file would fail forever. */
+                e.printStackTrace();
+                drop(name, save, true);
+                continue;
+            }
+
+            try {
+                drop(name, save, !sender.send(name, items));
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                failed = true;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                failed = true;
+            }
+        }
+
+        if (failed) {
+            failures++;
+            requestFlush(Math.min(MAX_BACKOFF,
+                    MIN_BACKOFF << Math.min(failures - 1, 20)));
+        } else {
+            failures = 0;
+
+            if (!pending.isEmpty()) {
+                requestFlush(FLUSH_DELAY);
+            }
+        }
+    }
+
+    /**
+     * Removes a sent or rejected save.
+     *
+     * Keeps the save pending if the list was saved again meanwhile.
+     *
+     * @param name name of the list.
+     * @param save number of the removed save.
+     * @param rejected whether the save is reported as dropped.
+     */
+    private void drop(String name, long save, boolean rejected) {
+
+        synchronized (this) {
+            if (!Long.valueOf(save).equals(pending.get(name))) {
+                return;
+            }
+
+            try {
+                Files.deleteIfExists(file(name));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+
+            pending.remove(name);
+        }
+
+        Consumer<String> listener = rejectListener;
+
+        if (rejected && listener != null) {
+            listener.accept(name);
+        }
+    }
+
+    /**
+     * Returns path of the pending save file of a list.
+     *
+     * @param listName name of the list.
+     * @return path of the file.
+     */
+    private Path file(String listName) {
+
+        try {
+            return dir.resolve(URLEncoder.encode(listName, "UTF-8")
+                    + EXTENSION);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sends a list to the server.
+     */
+    @FunctionalInterface
+    public interface Sender {
+
+        /**
+         * Saves items as a list on the server.
+         *
+         * @param listName name of the list.
+         * @param items items of the list.
+         * @return whether the server saved the items, false if it read the
+         *         save and rejected it.
+         * @throws IOException if the save failed on the way and may
+         *                     succeed later.
+         */
+        boolean send(String listName, Iterable<ShopItem> items)
+                throws IOException;
+    }
+}
@@ -0,0 +1,433 @@
+package fi.ooproject.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Own implementation of array-backed list.
+ *
+ * Stores elements in a growable array, so appending is amortized constant
+ * time and indexed access is constant time. Unlike {@link MyLinkedList},
+ * appended objects are placed at the end of the list.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class MyArrayList<T> implements MyList<T> {
+
+    /**
+     * Capacity used when no initial capacity is given.
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Array storing the elements. Slots at or after {@link #size} are null.
+     */
+    private Object[] elements;
+
+    /**
+     * Number of elements in the list.
+     */
+    private int size;
+
+    /**
+     * Number of structural modifications made to the list.
+     *
+     * Used by {@link MyArrayList#iterator() iterators} to detect concurrent
+     * modification.
+     */
+    private int modCount;
+
+    /**
+     * Constructor.
+     */
+    public MyArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity initial capacity of the backing array.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public MyArrayList(int capacity) throws IllegalArgumentException {
+
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: "
+                    + capacity);
+        }
+
+        elements = new Object[capacity];
+        size = 0;
+    }
+
+    /**
+     * Appends given object to the end of the list.
+     *
+     * Grows the backing array by half of its length when it is full.
+     *
+     * @param e given object.
+     */
+    @Override
+    public void add(Object e) {
+
+        if (size == elements.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY,
+                    elements.length + (elements.length >> 1));
+            elements = Arrays.copyOf(elements, capacity);
+        }
+
+        elements[size++] = e;
+        modCount++;
+    }
+
+    /**
+     * Clears the list.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns the object found at queried index in the list.
+     *
+     * @param index queried index.
+     * @return object at queried index.
+     * @throws IndexOutOfBoundsException if index is out of list's bounds.
+     */
+    @Override
+    public Object get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Returns whether the list is empty.
+     *
+     * @return whether the list is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return (size == 0);
+    }
+
+    /**
+     * Removes the object found at queried index in the list.
+     *
+     * Shifts every element after the removed one a step towards the start
+     * of the list.
+     *
+     * @param index queried index.
+     * @return removed object.
+     * @throws IndexOutOfBoundsException if index is out of list's bounds.
+     */
+    @Override
+    public Object remove(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        Object removed = elements[index];
+        fastRemove(index);
+        return removed;
+    }
+
+    /**
+     * Removes the first occurrence of the object given as argument.
+     *
+     * @param o object to be removed.
+     * @return whether given object was found and removed.
+     */
+    @Override
+    public boolean remove(Object o) {
+
+        for (int i = 0; i < size; i++) {
+            if (o == null ? elements[i] == null : o.equals(elements[i])) {
+                fastRemove(i);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes all elements that satisfy given predicate.
+     *
+     * Tests every element first and then compacts the retained elements
+     * towards the start of the array in a single pass, instead of shifting
+     * the array for every removal. If the predicate throws, the list is
+     * left unchanged.
+     *
+     * @param filter predicate returning true for elements to be removed.
+     * @return whether any elements were removed.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+
+        Objects.requireNonNull(filter);
+        BitSet removed = new BitSet(size);
+
+        for (int i = 0; i < size; i++) {
+            if (filter.test((T) elements[i])) {
+                removed.set(i);
+            }
+        }
+
+        if (removed.isEmpty()) {
+            return false;
+        }
+
+        int kept = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (!removed.get(i)) {
+                elements[kept++] = elements[i];
+            }
+        }
+
+        Arrays.fill(elements, kept, size, null);
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns the number of elements in the list.
+     *
+     * @return number of elements in the list.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an iterator over the objects in the list.
+     *
+     * @return fail-fast iterator over the list.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the objects in the list.
+     *
+     * Splits the backing array in halves, so parallel streams get evenly
+     * sized chunks.
+     *
+     * @return fail-fast spliterator over the list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Split(0, size, modCount);
+    }
+
+    /**
+     * Removes the element at given index without bounds checking.
+     *
+     * @param index index of removed element.
+     */
+    private void fastRemove(int index) {
+        int moved = size - index - 1;
+
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+        }
+
+        elements[--size] = null;
+        modCount++;
+    }
+
+    /**
+     * Checks that given index is within list's bounds.
+     *
+     * @param index checked index.
+     * @throws IndexOutOfBoundsException if index is out of list's bounds.
+     */
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Fail-fast iterator over the backing array.
+     */
+    private class Itr implements Iterator<T> {
+
+        /**
+         * Index of the element returned by the next call of {@link #next()}.
+         */
+        private int cursor;
+
+        /**
+         * Index of the element returned by the last call of {@link #next()},
+         * -1 if it has been removed or iteration has not started.
+         */
+        private int lastReturned = -1;
+
+        /**
+         * Modification count the iterator expects the list to have.
+         */
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T next() {
+            checkForComodification();
+
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = cursor++;
+            return (T) elements[lastReturned];
+        }
+
+        @Override
+        public void remove() {
+
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+
+            checkForComodification();
+            fastRemove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Checks that the list hasn't been modified outside the iterator.
+         *
+         * @throws ConcurrentModificationException if list has been modified.
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Fail-fast spliterator over a range of the backing array.
+     */
+    private class Split implements Spliterator<T> {
+
+        /**
+         * Index of the next element to traverse.
+         */
+        private int index;
+
+        /**
+         * Index after the last element to traverse.
+         */
+        private int fence;
+
+        /**
+         * Modification count the spliterator expects the list to have.
+         */
+        private int expectedModCount;
+
+        /**
+         * Constructor.
+         *
+         * @param index index of the first element to traverse.
+         * @param fence index after the last element to traverse.
+         * @param expectedModCount modification count of the list.
+         */
+        private Split(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+
+            int middle = (index + fence) >>> 1;
+
+            if (middle <= index) {
+                return null;
+            }
+
+            Split prefix = new Split(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+
+            Objects.requireNonNull(action);
+            checkForComodification();
+
+            if (index >= fence) {
+                return false;
+            }
+
+            action.accept((T) elements[index++]);
+            checkForComodification();
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+
+            Objects.requireNonNull(action);
+            checkForComodification();
+            Object[] array = elements;
+
+            for (; index < fence; index++) {
+                action.accept((T) array[index]);
+            }
+
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                    | Spliterator.SUBSIZED;
+        }
+
+        /**
+         * Checks that the list hasn't been modified since the spliterator
+         * was created.
+         *
+         * @throws ConcurrentModificationException if list has been modified.
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
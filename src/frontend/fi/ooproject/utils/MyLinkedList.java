@@ -1,5 +1,11 @@
 package fi.ooproject.utils;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
 /**
  * Own implementation of linked list.
  *
@@ -7,7 +13,7 @@ package fi.ooproject.utils;
  * @version 2016.1011
  * @since 1.8
  */
-public class MyLinkedList<T> implements MyList {
+public class MyLinkedList<T> implements MyList<T> {
 
     /**
      * Last appended {@link Element element}.
@@ -22,6 +28,14 @@ public class MyLinkedList<T> implements MyList {
      */
     private int size;
 
+    /**
+     * Number of structural modifications made to the list.
+     *
+     * Used by {@link MyLinkedList#iterator() iterators} to detect concurrent
+     * modification.
+     */
+    private int modCount;
+
     /**
      * Constructor.
      */
@@ -48,6 +62,7 @@ public class MyLinkedList<T> implements MyList {
         }
 
         size++;
+        modCount++;
     }
 
     /**
@@ -57,6 +72,7 @@ public class MyLinkedList<T> implements MyList {
     public void clear() {
         first = null;
         size = 0;
+        modCount++;
     }
 
     /**
@@ -111,7 +127,7 @@ public class MyLinkedList<T> implements MyList {
      * from removed element in link.
      *
      * @param index queried index.
-     * @return removed element as Object.
+     * @return content of removed element.
      * @throws IndexOutOfBoundsException if index is out of list's bounds.
      */
     @Override
@@ -122,7 +138,8 @@ public class MyLinkedList<T> implements MyList {
                 Element<T> removed = first;
                 first = first.getNext();
                 size--;
-                return removed;
+                modCount++;
+                return removed.getContent();
             } else {
                 Element<T> cursor = first;
 
@@ -132,7 +149,8 @@ public class MyLinkedList<T> implements MyList {
                         Element<T> removed = cursor.getNext();
                         cursor.setNext(removed.getNext());
                         size--;
-                        return removed;
+                        modCount++;
+                        return removed.getContent();
                     }
 
                     cursor = cursor.getNext();
@@ -148,50 +166,89 @@ public class MyLinkedList<T> implements MyList {
     /**
      * Removes the element given as argument.
      *
+     * Finds and unlinks the element during a single walk through the link.
+     *
      * @param o element to be removed.
      * @return whether given element was found and removed.
      */
     @Override
     public boolean remove(Object o) {
 
-        boolean found = false;
-        int index = 0;
+        Element<T> previous = null;
 
-        for (int i = 0; i < size; i++) {
-            if (get(i).equals(o)) {
-                found = true;
-                index = i;
-                break;
+        for (Element<T> cursor = first; cursor != null;
+             cursor = cursor.getNext()) {
+
+            if (Objects.equals(cursor.getContent(), o)) {
+                unlink(previous, cursor);
+                return true;
             }
+
+            previous = cursor;
         }
 
-        if (found) {
-            for (int i = 0; i <= index; i++) {
-                if (index == 0) {
-                    first = first.getNext();
-                    size--;
-                    return true;
-                } else {
-                    Element<T> cursor = first;
+        return false;
+    }
+
+    /**
+     * Removes all elements whose content satisfies given predicate.
+     *
+     * Unlinks every matching element during a single walk through the link.
+     *
+     * @param filter predicate returning true for contents to be removed.
+     * @return whether any elements were removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
 
-                    for (int j = 0; j <= index; j++) {
+        Objects.requireNonNull(filter);
+        int removed = 0;
+        Element<T> previous = null;
 
-                        if (j == index - 1) {
-                            Element<T> removed = cursor.getNext();
-                            cursor.setNext(removed.getNext());
-                            size--;
-                            return true;
-                        }
+        for (Element<T> cursor = first; cursor != null;
+             cursor = cursor.getNext()) {
 
-                        cursor = cursor.getNext();
-                    }
+            if (filter.test(cursor.getContent())) {
+                if (previous == null) {
+                    first = cursor.getNext();
+                } else {
+                    previous.setNext(cursor.getNext());
                 }
+
+                removed++;
+            } else {
+                previous = cursor;
             }
         }
 
+        if (removed > 0) {
+            size -= removed;
+            modCount++;
+            return true;
+        }
+
         return false;
     }
 
+    /**
+     * Unlinks given element from the link.
+     *
+     * @param previous element one step ahead of removed element in link,
+     *                 null if removed element is {@link #first}.
+     * @param removed element to be removed.
+     */
+    private void unlink(Element<T> previous, Element<T> removed) {
+
+        if (previous == null) {
+            first = removed.getNext();
+        } else {
+            previous.setNext(removed.getNext());
+        }
+
+        size--;
+        modCount++;
+    }
+
     /**
      * Returns the number of elements in the list.
      *
@@ -201,4 +258,91 @@ public class MyLinkedList<T> implements MyList {
     public int size() {
         return size;
     }
+
+    /**
+     * Returns an iterator over the elements' contents in the list.
+     *
+     * Walks the link once, so a full pass takes linear time instead of
+     * the quadratic time of calling {@link #get(int)} for every index.
+     *
+     * @return fail-fast iterator over the list.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Fail-fast iterator walking the link from {@link #first}.
+     */
+    private class Itr implements Iterator<T> {
+
+        /**
+         * Element returned by the next call of {@link #next()}.
+         */
+        private Element<T> next = first;
+
+        /**
+         * Element returned by the last call of {@link #next()}, null if
+         * it has been removed or iteration has not started.
+         */
+        private Element<T> lastReturned;
+
+        /**
+         * Element one step ahead of {@link #lastReturned} in link, null if
+         * there is none.
+         */
+        private Element<T> previous;
+
+        /**
+         * Modification count the iterator expects the list to have.
+         */
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            if (lastReturned != null) {
+                previous = lastReturned;
+            }
+
+            lastReturned = next;
+            next = next.getNext();
+            return lastReturned.getContent();
+        }
+
+        @Override
+        public void remove() {
+
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+
+            checkForComodification();
+            unlink(previous, lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Checks that the list hasn't been modified outside the iterator.
+         *
+         * @throws ConcurrentModificationException if list has been modified.
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 }
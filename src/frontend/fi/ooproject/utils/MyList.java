@@ -1,13 +1,24 @@
 package fi.ooproject.utils;
 
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+
 /**
  * Interface for list implementations.
  *
+ * Lists are iterable. Iterators are fail-fast: structural modification of
+ * the list during iteration, other than through the iterator itself,
+ * causes {@link java.util.ConcurrentModificationException}.
+ *
  * @author Juuso Pakarinen
  * @version 2016.1011
  * @since 1.8
  */
-public interface MyList {
+public interface MyList<T> extends Iterable<T> {
 
     /**
      * Appends the specified object to the end of this list.
@@ -57,10 +68,87 @@ public interface MyList {
      */
     boolean remove(Object o);
 
+    /**
+     * Removes all objects of this list that satisfy given predicate.
+     *
+     * The default implementation removes matching objects through
+     * {@link #iterator()} during a single pass.
+     *
+     * @param filter predicate returning true for objects to be removed.
+     * @return whether any objects were removed.
+     */
+    default boolean removeIf(Predicate<? super T> filter) {
+
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        Iterator<T> iterator = iterator();
+
+        while (iterator.hasNext()) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Removes all objects of this list that are contained in given
+     * collection.
+     *
+     * Takes a single pass over this list. Use a hash based collection to
+     * keep each containment check constant time.
+     *
+     * @param c collection containing objects to be removed.
+     * @return whether any objects were removed.
+     */
+    default boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    /**
+     * Retains only the objects of this list that are contained in given
+     * collection.
+     *
+     * Takes a single pass over this list. Use a hash based collection to
+     * keep each containment check constant time.
+     *
+     * @param c collection containing objects to be retained.
+     * @return whether any objects were removed.
+     */
+    default boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
     /**
      * Returns the number of objects in this list.
      *
      * @return the number of objects in this list.
      */
     int size();
+
+    /**
+     * Returns an iterator over the objects in this list in proper sequence.
+     *
+     * @return fail-fast iterator over the objects in this list.
+     */
+    @Override
+    Iterator<T> iterator();
+
+    /**
+     * Returns a spliterator over the objects in this list.
+     *
+     * The default implementation wraps {@link #iterator()} and splits
+     * the list in batches, so it can be used for parallel streams.
+     *
+     * @return spliterator over the objects in this list.
+     */
+    @Override
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED);
+    }
 }
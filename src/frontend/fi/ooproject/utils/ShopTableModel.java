@@ -138,10 +138,12 @@ public class ShopTableModel extends AbstractTableModel {
 
             switch (columnIndex) {
                 case 0:
-                    row.setQuantity((int)aValue);
+                    shoplist.setQuantity(row, (int)aValue);
                     break;
                 case 1:
-                    row.setName(aValue.toString());
+                    if (shoplist.renameItem(row, aValue.toString())) {
+                        fireTableDataChanged();
+                    }
                     break;
             }
         } catch (ArrayIndexOutOfBoundsException e) {
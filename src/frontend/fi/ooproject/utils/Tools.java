@@ -21,17 +21,15 @@ public class Tools {
      */
     public static boolean isEmpty(String s) {
 
-        boolean empty = true;
-
-        if (s.length() > 0 && s != null) {
+        if (s != null) {
             for (int i = 0; i < s.length(); i++) {
                 if (s.charAt(i) != ' ' && s.charAt(i) != '\t'
                         && s.charAt(i) != '\n') {
-                    empty = false;
+                    return false;
                 }
             }
         }
 
-        return empty;
+        return true;
     }
 }
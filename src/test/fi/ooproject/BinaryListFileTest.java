@@ -0,0 +1,229 @@
+package fi.ooproject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Tests of {@link BinaryListFile}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class BinaryListFileTest {
+
+    /**
+     * Directory of the test files.
+     */
+    private static Path dir;
+
+    /**
+     * Runs the tests.
+     *
+     * @param args Command line arguments. Not used.
+     * @throws IOException if creating the test directory fails.
+     */
+    public static void main(String[] args) throws IOException {
+
+        dir = Check.tempDir();
+
+        Check.run("round trip", BinaryListFileTest::roundTrip);
+        Check.run("empty list", BinaryListFileTest::emptyList);
+        Check.run("checksum", BinaryListFileTest::checksum);
+        Check.run("flipped byte", BinaryListFileTest::flippedByte);
+        Check.run("truncated file", BinaryListFileTest::truncated);
+        Check.run("negative count", BinaryListFileTest::negativeCount);
+        Check.run("count larger than file",
+                BinaryListFileTest::countLargerThanFile);
+        Check.run("name longer than file",
+                BinaryListFileTest::nameLongerThanFile);
+        Check.run("load keeps list on error",
+                BinaryListFileTest::loadKeepsList);
+        Check.done();
+    }
+
+    /**
+     * Items survive writing and reading, including repeated names,
+     * non-ASCII names and negative quantities.
+     *
+     * @throws IOException if writing or reading fails.
+     */
+    private static void roundTrip() throws IOException {
+
+        List<ShopItem> items = Arrays.asList(new ShopItem("milk", 2),
+                new ShopItem("maitoä", -3), new ShopItem("milk", 0),
+                new ShopItem("", Integer.MAX_VALUE),
+                new ShopItem("eggs", Integer.MIN_VALUE));
+        Path file = dir.resolve("round.slb");
+        BinaryListFile.write(file, items, items.size());
+
+        Check.equal(Check.items(items), Check.items(BinaryListFile.read(file)),
+                "read items");
+    }
+
+    /**
+     * An empty list is written and read back.
+     *
+     * @throws IOException if writing or reading fails.
+     */
+    private static void emptyList() throws IOException {
+
+        Path file = dir.resolve("empty.slb");
+        BinaryListFile.write(file, new ShoppingList(), 0);
+
+        Check.equal(0, BinaryListFile.read(file).size(), "read items");
+    }
+
+    /**
+     * The returned checksum is the one stored at the end of the file.
+     *
+     * @throws IOException if writing or reading fails.
+     */
+    private static void checksum() throws IOException {
+
+        Path file = dir.resolve("checksum.slb");
+        List<ShopItem> items = Arrays.asList(new ShopItem("bread", 1));
+        int written = BinaryListFile.write(file, items, 1);
+
+        Check.equal(written, BinaryListFile.readChecksum(file), "checksum");
+    }
+
+    /**
+     * Any single flipped byte makes the file invalid.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void flippedByte() throws IOException {
+
+        Path file = dir.resolve("flipped.slb");
+        List<ShopItem> items = Arrays.asList(new ShopItem("milk", 2),
+                new ShopItem("eggs", 12), new ShopItem("milk", 1));
+        BinaryListFile.write(file, items, items.size());
+        byte[] original = Files.readAllBytes(file);
+
+        for (int i = 0; i < original.length; i++) {
+            byte[] corrupt = original.clone();
+            corrupt[i] ^= 0x10;
+            Files.write(file, corrupt);
+            Check.fails(IOException.class, () -> BinaryListFile.read(file));
+        }
+    }
+
+    /**
+     * Every truncated prefix of a file is rejected.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void truncated() throws IOException {
+
+        Path file = dir.resolve("truncated.slb");
+        List<ShopItem> items = Arrays.asList(new ShopItem("milk", 2),
+                new ShopItem("eggs", 12));
+        BinaryListFile.write(file, items, items.size());
+        byte[] original = Files.readAllBytes(file);
+
+        for (int length = 0; length < original.length; length++) {
+            Files.write(file, Arrays.copyOf(original, length));
+            Check.fails(IOException.class, () -> BinaryListFile.read(file));
+        }
+    }
+
+    /**
+     * A count varint decoding to a negative number is rejected.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void negativeCount() throws IOException {
+
+        Path file = dir.resolve("negative.slb");
+        Files.write(file, withChecksum(header(),
+                new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                        (byte) 0xFF, 0x0F}));
+
+        Check.fails(IOException.class, () -> BinaryListFile.read(file));
+    }
+
+    /**
+     * A count larger than the file could hold is rejected.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void countLargerThanFile() throws IOException {
+
+        Path file = dir.resolve("count.slb");
+        Files.write(file, withChecksum(header(),
+                new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                        (byte) 0xFF, 0x07}));
+
+        Check.fails(IOException.class, () -> BinaryListFile.read(file));
+    }
+
+    /**
+     * A name length larger than the rest of the file is rejected before
+     * the name is allocated.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void nameLongerThanFile() throws IOException {
+
+        Path file = dir.resolve("name.slb");
+        /* One item with a new name of 2^30 - 1 bytes. */
+        Files.write(file, withChecksum(header(),
+                new byte[]{1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF,
+                        (byte) 0xFF, 0x07, 0}));
+
+        Check.fails(IOException.class, () -> BinaryListFile.read(file));
+    }
+
+    /**
+     * Loading a corrupt file fails and leaves the shop list untouched.
+     *
+     * @throws IOException if writing fails.
+     */
+    private static void loadKeepsList() throws IOException {
+
+        Path file = dir.resolve("corrupt.slb");
+        Files.write(file, withChecksum(header(), new byte[]{2, 8}));
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("bread", 1));
+
+        Check.isTrue(!list.loadFile(file.toString(), false), "load failed");
+        Check.equal("1 bread", Check.items(list), "list");
+    }
+
+    /**
+     * Returns magic and version of the current format.
+     *
+     * @return file header.
+     */
+    private static byte[] header() {
+        return new byte[]{'S', 'H', 'P', 'L', 1};
+    }
+
+    /**
+     * Concatenates given parts and appends their CRC32.
+     *
+     * @param parts contents of the file.
+     * @return contents followed by a valid checksum.
+     * @throws IOException if writing to memory fails.
+     */
+    private static byte[] withChecksum(byte[]... parts) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+
+        for (byte[] part : parts) {
+            bytes.write(part);
+            crc.update(part);
+        }
+
+        new DataOutputStream(bytes).writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,188 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Minimal assertions and runner for the tests.
+ *
+ * Tests are plain classes with a main method calling
+ * {@link #run(String, Test)} for each test case. A failing case prints its
+ * stack trace, and the process exits with status 1 once all cases have
+ * run. Run with the frontend and backend classes on the classpath, for
+ * example:
+ * <code>java -cp classes:test fi.ooproject.BinaryListFileTest</code>
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class Check {
+
+    /**
+     * Number of failed test cases.
+     */
+    private static int failures = 0;
+
+    /**
+     * Test case.
+     */
+    public interface Test {
+
+        /**
+         * Runs the test case.
+         *
+         * @throws Exception if the test case fails.
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a test case and reports its result.
+     *
+     * @param name name of the test case.
+     * @param test test case.
+     */
+    public static void run(String name, Test test) {
+
+        try {
+            test.run();
+            System.out.println("ok   " + name);
+        } catch (Throwable e) {
+            failures++;
+            System.out.println("FAIL " + name);
+            e.printStackTrace(System.out);
+        }
+    }
+
+    /**
+     * Exits with status 1 if any test case failed.
+     */
+    public static void done() {
+
+        if (failures > 0) {
+            System.out.println(failures + " failed");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Fails unless given condition holds.
+     *
+     * @param condition checked condition.
+     * @param message description of the condition.
+     */
+    public static void isTrue(boolean condition, String message) {
+
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Fails unless given values are equal.
+     *
+     * @param expected expected value.
+     * @param actual actual value.
+     * @param message description of the value.
+     */
+    public static void equal(Object expected, Object actual, String message) {
+
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected <" + expected
+                    + "> but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Fails unless running given code throws an exception of given type.
+     *
+     * @param type expected exception type.
+     * @param test code expected to throw.
+     */
+    public static void fails(Class<? extends Throwable> type, Test test) {
+
+        try {
+            test.run();
+        } catch (Throwable e) {
+            if (type.isInstance(e)) {
+                return;
+            }
+
+            throw new AssertionError("Expected " + type.getSimpleName()
+                    + " but got " + e, e);
+        }
+
+        throw new AssertionError("Expected " + type.getSimpleName());
+    }
+
+    /**
+     * Returns a list as text, one "quantity name" entry per item.
+     *
+     * @param list shop list.
+     * @return items of the list in order.
+     */
+    public static String items(Iterable<ShopItem> list) {
+
+        StringBuilder text = new StringBuilder();
+
+        for (ShopItem item : list) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+
+            text.append(item.toString());
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Creates an empty temporary directory removed when the JVM exits.
+     *
+     * @return path of the directory.
+     * @throws IOException if creating the directory fails.
+     */
+    public static Path tempDir() throws IOException {
+
+        Path dir = Files.createTempDirectory("shoplist-test");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(dir)));
+        return dir;
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param dir deleted directory.
+     */
+    private static void delete(Path dir) {
+
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult visitFile(Path file,
+                                                 BasicFileAttributes attrs)
+                        throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d,
+                                                          IOException e)
+                        throws IOException {
+                    Files.delete(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
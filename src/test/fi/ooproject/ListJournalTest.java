@@ -0,0 +1,239 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tests of {@link ListJournal} and journal files of {@link ShoppingList}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class ListJournalTest {
+
+    /**
+     * Directory of the test files.
+     */
+    private static Path dir;
+
+    /**
+     * Runs the tests.
+     *
+     * @param args Command line arguments. Not used.
+     * @throws IOException if creating the test directory fails.
+     */
+    public static void main(String[] args) throws IOException {
+
+        dir = Check.tempDir();
+
+        Check.run("edits round trip", ListJournalTest::roundTrip);
+        Check.run("compaction", ListJournalTest::compaction);
+        Check.run("rename compacting the log",
+                ListJournalTest::renameCompacting);
+        Check.run("combine", ListJournalTest::combine);
+        Check.run("partial last record", ListJournalTest::partialRecord);
+        Check.run("log of old snapshot", ListJournalTest::oldSnapshotLog);
+        Check.run("failed log creation", ListJournalTest::failedNewLog);
+        Check.done();
+    }
+
+    /**
+     * Every kind of edit is replayed on load.
+     */
+    private static void roundTrip() {
+
+        String path = dir.resolve("edits.slj").toString();
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("milk", 1));
+        Check.isTrue(list.saveFile(path), "saved");
+
+        list.addItem(new ShopItem("eggs", 12));
+        list.addItem(new ShopItem("bread", 2));
+        list.addItem(new ShopItem("milk", 2));
+        list.setQuantity(list.findItem("eggs"), 6);
+        list.renameItem(list.findItem("bread"), "rye");
+        list.addItem(new ShopItem("butter", 1));
+        list.renameItem(list.findItem("butter"), "milk");
+        list.removeItem(list.findItem("eggs"));
+        list.addItem(new ShopItem("jam", 1));
+        list.closeJournal();
+
+        Check.equal(Check.items(list), Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * A log grown past the compaction limit is written as a snapshot.
+     *
+     * @throws IOException if reading the log fails.
+     */
+    private static void compaction() throws IOException {
+
+        String path = dir.resolve("compact.slj").toString();
+        ShoppingList list = new ShoppingList();
+        Check.isTrue(list.saveFile(path), "saved");
+
+        for (int i = 0; i < 2500; i++) {
+            list.addItem(new ShopItem("item" + (i % 10), 1));
+        }
+
+        list.closeJournal();
+
+        Check.isTrue(Files.size(Paths.get(path + ListJournal.LOG_EXTENSION))
+                < 2500 * 8, "log was compacted");
+        Check.equal(Check.items(list), Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * A rename whose record triggers compaction is in the new snapshot.
+     */
+    private static void renameCompacting() {
+
+        String path = dir.resolve("rename.slj").toString();
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("old", 1));
+        Check.isTrue(list.saveFile(path), "saved");
+
+        /* Each rename appends a record, some of them compact the log. */
+        for (int i = 0; i < 3000; i++) {
+            list.renameItem(list.getItem(0), "name" + i);
+        }
+
+        list.closeJournal();
+
+        Check.equal("1 name2999", Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * Combining adds the journaled list to the current items, even if the
+     * log clears or renames items.
+     */
+    private static void combine() {
+
+        String path = dir.resolve("combine.slj").toString();
+        ShoppingList journaled = new ShoppingList();
+        journaled.addItem(new ShopItem("old", 5));
+        Check.isTrue(journaled.saveFile(path), "saved");
+        journaled.clearList();
+        journaled.addItem(new ShopItem("milk", 1));
+        journaled.addItem(new ShopItem("tea", 1));
+        journaled.renameItem(journaled.findItem("tea"), "coffee");
+        journaled.closeJournal();
+
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("tea", 2));
+        list.addItem(new ShopItem("milk", 3));
+        Check.isTrue(list.loadFile(path, true), "combined");
+
+        Check.equal("2 tea, 4 milk, 1 coffee", Check.items(list), "combined");
+
+        /* The combined list is the new content of the journal. */
+        list.addItem(new ShopItem("jam", 1));
+        list.closeJournal();
+        Check.equal(Check.items(list), Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * A record cut short at the end of the log is ignored and later edits
+     * are journaled after it.
+     *
+     * @throws IOException if truncating the log fails.
+     */
+    private static void partialRecord() throws IOException {
+
+        String path = dir.resolve("partial.slj").toString();
+        ShoppingList list = new ShoppingList();
+        Check.isTrue(list.saveFile(path), "saved");
+        list.addItem(new ShopItem("milk", 1));
+        list.addItem(new ShopItem("eggs", 12));
+        list.closeJournal();
+
+        Path log = Paths.get(path + ListJournal.LOG_EXTENSION);
+
+        try (FileChannel channel = FileChannel.open(log,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        ShoppingList loaded = load(path);
+        Check.equal("1 milk", Check.items(loaded), "loaded");
+
+        loaded.addItem(new ShopItem("jam", 1));
+        loaded.closeJournal();
+        Check.equal("1 milk, 1 jam", Check.items(load(path)), "reloaded");
+    }
+
+    /**
+     * A log left behind by a crash after a new snapshot was moved in place
+     * is not applied.
+     *
+     * @throws IOException if copying the files fails.
+     */
+    private static void oldSnapshotLog() throws IOException {
+
+        String path = dir.resolve("stale.slj").toString();
+        Path log = Paths.get(path + ListJournal.LOG_EXTENSION);
+        Path oldLog = dir.resolve("stale.old");
+        ShoppingList list = new ShoppingList();
+        Check.isTrue(list.saveFile(path), "saved");
+        list.addItem(new ShopItem("milk", 1));
+        Files.copy(log, oldLog);
+
+        /* Writes a new snapshot containing the milk. */
+        list.closeJournal();
+        Check.isTrue(list.saveFile(path), "saved again");
+        list.closeJournal();
+        Files.copy(oldLog, log, StandardCopyOption.REPLACE_EXISTING);
+
+        Check.equal("1 milk", Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * Edits made after a compaction failed to create a new log are
+     * written as a new snapshot once the log can be created again.
+     *
+     * @throws IOException if replacing the log fails.
+     */
+    private static void failedNewLog() throws IOException {
+
+        String path = dir.resolve("failing.slj").toString();
+        Path log = Paths.get(path + ListJournal.LOG_EXTENSION);
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("milk", 0));
+        Check.isTrue(list.saveFile(path), "saved");
+
+        /* A directory in place of the log can't be opened for writing. */
+        Files.delete(log);
+        Files.createDirectory(log);
+
+        /* Enough records to compact the log, and some after that. */
+        for (int i = 1; i <= 1100; i++) {
+            list.setQuantity(list.findItem("milk"), i);
+        }
+
+        Files.delete(log);
+        list.addItem(new ShopItem("last", 1));
+        list.addItem(new ShopItem("after", 1));
+        list.closeJournal();
+
+        Check.equal(Check.items(list), Check.items(load(path)), "loaded");
+    }
+
+    /**
+     * Loads a journal into a new list without journaling further edits.
+     *
+     * @param path path of the journal snapshot.
+     * @return loaded list.
+     */
+    private static ShoppingList load(String path) {
+
+        ShoppingList list = new ShoppingList();
+        Check.isTrue(list.loadFile(path, false), "loaded " + path);
+        return list;
+    }
+}
@@ -0,0 +1,373 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests of {@link MemoryListStore}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class MemoryListStoreTest {
+
+    /**
+     * Directory of the test stores.
+     */
+    private static Path dir;
+
+    /**
+     * Runs the tests.
+     *
+     * @param args Command line arguments. Not used.
+     * @throws IOException if creating the test directory fails.
+     */
+    public static void main(String[] args) throws IOException {
+
+        dir = Check.tempDir();
+
+        Check.run("save round trip", MemoryListStoreTest::roundTrip);
+        Check.run("diff save", MemoryListStoreTest::diffSave);
+        Check.run("patch merge", MemoryListStoreTest::patchMerge);
+        Check.run("failed precondition", MemoryListStoreTest::precondition);
+        Check.run("pages by product", MemoryListStoreTest::pagesByProduct);
+        Check.run("pages by amount", MemoryListStoreTest::pagesByAmount);
+        Check.run("torn last record", MemoryListStoreTest::tornRecord);
+        Check.run("corrupt last record", MemoryListStoreTest::corruptRecord);
+        Check.run("corrupt record length", MemoryListStoreTest::corruptLength);
+        Check.done();
+    }
+
+    /**
+     * Saved lists and their versions are replayed by a new store.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void roundTrip() throws StorageException {
+
+        String path = dir.resolve("roundtrip").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        store.save("food", items("milk", 1, "eggs", 12), true);
+        String version = store.save("food", items("milk", 2), true);
+        store.save("tools", items("saw", 1), true);
+
+        MemoryListStore reopened = new MemoryListStore(path, true, 1 << 20);
+        Check.equal("food, tools", names(reopened), "names");
+        Check.equal("milk 2", items(reopened.items("food")), "items");
+        Check.equal(version, reopened.version("food"), "version");
+        Check.equal("saw 1", items(reopened.items("tools")), "other list");
+    }
+
+    /**
+     * A diff save removes missing items and keeps unchanged ones.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void diffSave() throws StorageException {
+
+        String path = dir.resolve("diff").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        store.save("food", items("milk", 1, "eggs", 12, "rye", 2), true);
+        store.save("food", items("milk", 1, "eggs", 6, "tea", 3), false);
+
+        Check.equal("eggs 6, milk 1, tea 3", items(store.items("food")),
+                "items");
+        Check.equal("eggs 6, milk 1, tea 3",
+                items(new MemoryListStore(path, true, 1 << 20)
+                        .items("food")),
+                "replayed items");
+    }
+
+    /**
+     * Patches add to current amounts, and the logged result replays.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void patchMerge() throws StorageException {
+
+        String path = dir.resolve("patch").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        String version = store.save("food",
+                items("milk", 1, "eggs", 12, "rye", 2), true);
+
+        ListChanges changes = new ListChanges();
+        changes.add("milk", 2);
+        changes.add("tea", 1);
+        changes.set("eggs", 6);
+        changes.remove("rye");
+        String patched = store.patch("food", changes, version::equals);
+
+        Check.isTrue(patched != null && !patched.equals(version),
+                "new version");
+        Check.equal("eggs 6, milk 3, tea 1", items(store.items("food")),
+                "items");
+        Check.equal("eggs 6, milk 3, tea 1",
+                items(new MemoryListStore(path, true, 1 << 20)
+                        .items("food")),
+                "replayed items");
+    }
+
+    /**
+     * A failed precondition changes nothing and creates no list.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void precondition() throws StorageException {
+
+        String path = dir.resolve("precondition").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        String version = store.save("food", items("milk", 1), true);
+        ListChanges changes = new ListChanges();
+        changes.add("milk", 1);
+
+        Check.equal(null, store.patch("food", changes, (tag) -> false),
+                "stale patch");
+        Check.equal("milk 1", items(store.items("food")), "items");
+        Check.equal(version, store.version("food"), "version");
+
+        Check.equal(null, store.patch("tools", changes, (tag) -> false),
+                "patch of missing list");
+        Check.equal(null, store.version("tools"), "missing version");
+        Check.equal(null, store.items("tools"), "missing items");
+        Check.equal("food", names(store), "names");
+        Check.equal("food",
+                names(new MemoryListStore(path, true, 1 << 20)),
+                "replayed names");
+
+        String created = store.patch("tools", changes, (tag) -> true);
+        Check.isTrue(created != null, "created");
+        Check.equal("milk 1", items(store.items("tools")), "created items");
+    }
+
+    /**
+     * Pages by product continue after the last product of the page.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void pagesByProduct() throws StorageException {
+
+        MemoryListStore store = new MemoryListStore(
+                dir.resolve("pages").toString(), false, 1 << 20);
+        store.save("food", items("tea", 1, "eggs", 12, "rye", 2,
+                "milk", 1, "jam", 3), true);
+
+        Check.equal("eggs 12, jam 3",
+                items(store.page("food", false, 0, null, 2)), "first page");
+        Check.equal("milk 1, rye 2",
+                items(store.page("food", false, 0, "jam", 2)),
+                "second page");
+        Check.equal("tea 1",
+                items(store.page("food", false, 0, "rye", 2)), "last page");
+        Check.equal("", items(store.page("food", false, 0, "tea", 2)),
+                "past the end");
+        Check.equal("", items(store.page("none", false, 0, null, 2)),
+                "missing list");
+    }
+
+    /**
+     * Pages by amount break ties by product, without skipping items.
+     *
+     * @throws StorageException if the store fails.
+     */
+    private static void pagesByAmount() throws StorageException {
+
+        MemoryListStore store = new MemoryListStore(
+                dir.resolve("amounts").toString(), false, 1 << 20);
+        store.save("food", items("tea", 1, "eggs", 12, "rye", 2,
+                "milk", 1, "jam", 2), true);
+
+        Check.equal("milk 1, tea 1",
+                items(store.page("food", true, 0, null, 2)), "first page");
+        Check.equal("jam 2, rye 2",
+                items(store.page("food", true, 1, "tea", 2)),
+                "second page");
+        Check.equal("rye 2, eggs 12",
+                items(store.page("food", true, 2, "jam", 2)),
+                "page after a tie");
+        Check.equal("", items(store.page("food", true, 12, "eggs", 2)),
+                "past the end");
+    }
+
+    /**
+     * A record cut short by a crash is ignored on replay.
+     *
+     * @throws Exception if the store or the file access fails.
+     */
+    private static void tornRecord() throws Exception {
+
+        String path = dir.resolve("torn").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        String version = store.save("food", items("milk", 1), true);
+        store.save("food", items("milk", 2, "eggs", 12), true);
+
+        try (RandomAccessFile file = new RandomAccessFile(
+                lastSegment(path).toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        MemoryListStore reopened = new MemoryListStore(path, true, 1 << 20);
+        Check.equal("milk 1", items(reopened.items("food")), "items");
+        Check.equal(version, reopened.version("food"), "version");
+
+        reopened.save("food", items("tea", 1), false);
+        Check.equal("tea 1",
+                items(new MemoryListStore(path, true, 1 << 20)
+                        .items("food")),
+                "saved after the torn record");
+    }
+
+    /**
+     * A record failing its checksum is ignored on replay.
+     *
+     * @throws Exception if the store or the file access fails.
+     */
+    private static void corruptRecord() throws Exception {
+
+        String path = dir.resolve("corrupt").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        store.save("food", items("milk", 1), true);
+        store.save("food", items("milk", 2), true);
+
+        try (RandomAccessFile file = new RandomAccessFile(
+                lastSegment(path).toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        Check.equal("milk 1",
+                items(new MemoryListStore(path, true, 1 << 20)
+                        .items("food")),
+                "items");
+    }
+
+    /**
+     * A record length past the end of the segment ends the log without
+     * allocating a buffer for it.
+     *
+     * @throws Exception if the store or the file access fails.
+     */
+    private static void corruptLength() throws Exception {
+
+        String path = dir.resolve("length").toString();
+        MemoryListStore store = new MemoryListStore(path, true, 1 << 20);
+        store.save("food", items("milk", 1), true);
+
+        try (RandomAccessFile file = new RandomAccessFile(
+                lastSegment(path).toFile(), "rw")) {
+            file.seek(file.length());
+            file.writeInt(Integer.MAX_VALUE - 8);
+            file.writeInt(0);
+        }
+
+        Check.equal("milk 1",
+                items(new MemoryListStore(path, true, 1 << 20)
+                        .items("food")),
+                "items");
+    }
+
+    /**
+     * Returns a map of items.
+     *
+     * @param entries products followed by their amounts.
+     * @return map from product to amount, in the given order.
+     */
+    private static Map<String, Integer> items(Object... entries) {
+
+        Map<String, Integer> items = new LinkedHashMap<>();
+
+        for (int i = 0; i < entries.length; i += 2) {
+            items.put((String) entries[i], (Integer) entries[i + 1]);
+        }
+
+        return items;
+    }
+
+    /**
+     * Returns items of a cursor as text, for example "eggs 12, milk 1".
+     *
+     * @param items cursor over items, closed after reading.
+     * @return items as text.
+     * @throws StorageException if reading fails.
+     */
+    private static String items(ListStore.Items items)
+            throws StorageException {
+
+        StringBuilder text = new StringBuilder();
+
+        try (ListStore.Items cursor = items) {
+            while (cursor.next()) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+
+                text.append(cursor.getProduct()).append(' ')
+                        .append(cursor.getAmount());
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Returns names of the lists of a store as text.
+     *
+     * @param store store of the lists.
+     * @return names separated by commas.
+     * @throws StorageException if reading fails.
+     */
+    private static String names(ListStore store) throws StorageException {
+
+        StringBuilder text = new StringBuilder();
+
+        try (ListStore.Names names = store.names()) {
+            while (names.next()) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+
+                text.append(names.getName());
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Returns the last log segment holding records.
+     *
+     * A store starts a new, empty segment when it is opened.
+     *
+     * @param path directory of the store.
+     * @return path of the segment.
+     * @throws IOException if listing the directory fails.
+     */
+    private static Path lastSegment(String path) throws IOException {
+
+        Path last = null;
+        long lastSeq = -1;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+                dir.resolve(path), "segment-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long seq = Long.parseLong(name.substring(
+                        "segment-".length(), name.length() - 4));
+
+                if (seq > lastSeq && Files.size(file) > 0) {
+                    last = file;
+                    lastSeq = seq;
+                }
+            }
+        }
+
+        return last;
+    }
+}
@@ -0,0 +1,257 @@
+package fi.ooproject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Tests of {@link SyncOutbox}.
+ *
+ * @author Juuso Pakarinen
+ * @version 2026.1018
+ * @since 1.8
+ */
+public class SyncOutboxTest {
+
+    /**
+     * Milliseconds to wait for the outbox.
+     */
+    private static final long TIMEOUT = 10000;
+
+    /**
+     * Directory of the test outboxes.
+     */
+    private static Path dir;
+
+    /**
+     * Runs the tests.
+     *
+     * @param args Command line arguments. Not used.
+     * @throws IOException if creating the test directory fails.
+     */
+    public static void main(String[] args) throws IOException {
+
+        dir = Check.tempDir();
+
+        Check.run("save sent", SyncOutboxTest::saveSent);
+        Check.run("saves combined", SyncOutboxTest::savesCombined);
+        Check.run("retry after connection failure",
+                SyncOutboxTest::retried);
+        Check.run("rejected save dropped", SyncOutboxTest::rejected);
+        Check.run("unreadable file dropped", SyncOutboxTest::unreadable);
+        Check.run("pending save after restart", SyncOutboxTest::restart);
+        Check.done();
+    }
+
+    /**
+     * A saved list is sent and its file deleted.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void saveSent() throws Exception {
+
+        Path outboxDir = dir.resolve("sent");
+        List<String> sent = new CopyOnWriteArrayList<>();
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            sent.add(name + ": " + Check.items(items));
+            return true;
+        }, outboxDir);
+
+        Check.isTrue(outbox.save("food", list()), "stored");
+        Check.equal(1, outbox.getPendingCount(), "pending");
+        await(() -> outbox.getPendingCount() == 0, "sent");
+        outbox.close();
+
+        Check.equal("[food: 1 milk, 12 eggs]", sent.toString(), "sent items");
+        Check.isTrue(isEmpty(outboxDir), "file deleted");
+    }
+
+    /**
+     * Saves of a list close together are sent once, with the latest
+     * items.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void savesCombined() throws Exception {
+
+        Path outboxDir = dir.resolve("combined");
+        List<String> sent = new CopyOnWriteArrayList<>();
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            sent.add(name + ": " + Check.items(items));
+            return true;
+        }, outboxDir);
+        ShoppingList list = list();
+
+        outbox.save("food", list);
+        list.addItem(new ShopItem("rye", 2));
+        outbox.save("food", list);
+        list.setQuantity(list.findItem("milk"), 3);
+        outbox.save("food", list);
+        await(() -> outbox.getPendingCount() == 0, "sent");
+        outbox.close();
+
+        Check.equal("[food: 3 milk, 12 eggs, 2 rye]", sent.toString(),
+                "sent items");
+    }
+
+    /**
+     * A save failing to reach the server is retried.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void retried() throws Exception {
+
+        Path outboxDir = dir.resolve("retried");
+        AtomicInteger calls = new AtomicInteger();
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IOException("Unable to connect to the server.");
+            }
+
+            return true;
+        }, outboxDir);
+        outbox.setRejectListener(rejected::add);
+
+        outbox.save("food", list());
+        await(() -> outbox.getPendingCount() == 0, "sent");
+        outbox.close();
+
+        Check.equal(2, calls.get(), "calls");
+        Check.isTrue(rejected.isEmpty(), "not rejected");
+        Check.isTrue(isEmpty(outboxDir), "file deleted");
+    }
+
+    /**
+     * A save the server rejects is dropped, reported and not retried.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void rejected() throws Exception {
+
+        Path outboxDir = dir.resolve("rejected");
+        AtomicInteger calls = new AtomicInteger();
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            calls.incrementAndGet();
+            return false;
+        }, outboxDir);
+        outbox.setRejectListener(rejected::add);
+
+        outbox.save("food", list());
+        await(() -> !rejected.isEmpty(), "rejected");
+        /* Longer than the first retry delay. */
+        Thread.sleep(3000);
+        outbox.close();
+
+        Check.equal("[food]", rejected.toString(), "reported");
+        Check.equal(1, calls.get(), "calls");
+        Check.equal(0, outbox.getPendingCount(), "pending");
+        Check.isTrue(isEmpty(outboxDir), "file deleted");
+    }
+
+    /**
+     * A file that can't be read is dropped and reported without sending.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void unreadable() throws Exception {
+
+        Path outboxDir = dir.resolve("unreadable");
+        Files.createDirectories(outboxDir);
+        Files.write(outboxDir.resolve("food.slb"), new byte[]{1, 2, 3});
+        AtomicInteger calls = new AtomicInteger();
+        List<String> rejected = new CopyOnWriteArrayList<>();
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            calls.incrementAndGet();
+            return true;
+        }, outboxDir);
+        outbox.setRejectListener(rejected::add);
+
+        await(() -> outbox.getPendingCount() == 0, "dropped");
+        outbox.close();
+
+        Check.equal("[food]", rejected.toString(), "reported");
+        Check.equal(0, calls.get(), "calls");
+        Check.isTrue(isEmpty(outboxDir), "file deleted");
+    }
+
+    /**
+     * Saves not sent before closing are sent by the next outbox.
+     *
+     * @throws Exception if the test fails.
+     */
+    private static void restart() throws Exception {
+
+        Path outboxDir = dir.resolve("restart");
+        List<String> sent = new CopyOnWriteArrayList<>();
+        SyncOutbox closed = new SyncOutbox((name, items) -> {
+            sent.add("closed");
+            return true;
+        }, outboxDir);
+        closed.save("food & drink", list());
+        closed.close();
+
+        SyncOutbox outbox = new SyncOutbox((name, items) -> {
+            sent.add(name + ": " + Check.items(items));
+            return true;
+        }, outboxDir);
+        Check.equal(1, outbox.getPendingCount(), "pending");
+        await(() -> outbox.getPendingCount() == 0, "sent");
+        outbox.close();
+
+        Check.equal("[food & drink: 1 milk, 12 eggs]", sent.toString(),
+                "sent items");
+    }
+
+    /**
+     * Returns a list of two items.
+     *
+     * @return new list.
+     */
+    private static ShoppingList list() {
+
+        ShoppingList list = new ShoppingList();
+        list.addItem(new ShopItem("milk", 1));
+        list.addItem(new ShopItem("eggs", 12));
+        return list;
+    }
+
+    /**
+     * Waits until a condition holds.
+     *
+     * @param condition awaited condition.
+     * @param message describes the condition.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static void await(BooleanSupplier condition, String message)
+            throws InterruptedException {
+
+        long end = System.currentTimeMillis() + TIMEOUT;
+
+        while (!condition.getAsBoolean()) {
+            Check.isTrue(System.currentTimeMillis() < end,
+                    "timed out: " + message);
+            Thread.sleep(50);
+        }
+    }
+
+    /**
+     * Returns whether a directory has no files.
+     *
+     * @param path directory.
+     * @return whether the directory is empty.
+     * @throws IOException if listing the directory fails.
+     */
+    private static boolean isEmpty(Path path) throws IOException {
+
+        try (Stream<Path> files = Files.list(path)) {
+            return !files.findAny().isPresent();
+        }
+    }
+}